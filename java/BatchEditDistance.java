@@ -0,0 +1,416 @@
+/*
+ * Title: Batch Edit Distance
+ * Date: 10/18/2026
+ *
+ * Given a query string and a large list of candidate strings, find the edit
+ * distance from the query to every candidate, every candidate within a given
+ * distance, or the closest few candidates.
+ *
+ * eg.
+ * query = "CAT"
+ * candidates = {"CART", "DOG", "CAT", "COAT", "BAT"}
+ * withinDistance(candidates, 1) = {CAT:0, BAT:1, CART:1, COAT:1}
+ * nearest(candidates, 2) = {CAT:0, CART:1}
+ *
+ * Calling EditDistance once per candidate redoes the same work for the query
+ * every time. Here we build the query's bit masks once (see
+ * EditDistance.BitPattern), give each worker thread its own scratch columns
+ * and split the candidates across a ForkJoinPool. Threshold and nearest
+ * queries also pass a bound into the bit-parallel loop so that hopeless
+ * candidates are abandoned early.
+ *
+ * Matches are returned as packed longs rather than objects: the distance in
+ * the high 32 bits and the candidate index in the low 32 bits, so sorting the
+ * array sorts by distance and then index. Use distanceOf() and indexOf() to
+ * unpack them.
+ *
+ * A dictionary with millions of entries doesn't have to be loaded into
+ * memory first: withinDistance and nearest also take an Iterable or a
+ * Stream, and the index of a match is its position in it. Those are read in
+ * batches on the calling thread, and each batch is split across the pool
+ * while the next one is read, so only two batches are held at once. For
+ * nearest, every batch starts from the worst of the best candidates so far
+ * as its bound.
+ *
+ * Execution: javac BatchEditDistance.java && java BatchEditDistance
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+public class BatchEditDistance {
+    // Candidates per leaf task
+    private static final int CHUNK = 1024;
+    // Candidates read from an Iterable or Stream at a time
+    static final int BATCH = 64 * CHUNK;
+
+    private EditDistance.BitPattern query;
+    private ForkJoinPool pool;
+    // Per-thread pv and mv columns for queries longer than 64 characters
+    private ThreadLocal<long[][]> scratch;
+
+    // Use the common pool
+    public BatchEditDistance(CharSequence query) {
+        this(query, ForkJoinPool.commonPool());
+    }
+
+    public BatchEditDistance(CharSequence query, ForkJoinPool pool) {
+        this.query = new EditDistance.BitPattern(query);
+        this.pool = pool;
+        int blocks = this.query.blocks();
+        this.scratch = ThreadLocal.withInitial(() -> new long[][]{new long[blocks], new long[blocks]});
+    }
+
+    public static int distanceOf(long match) {
+        return (int) (match >>> 32);
+    }
+
+    public static int indexOf(long match) {
+        return (int) match;
+    }
+
+    // Edit distance from the query to a single candidate
+    public int distance(CharSequence candidate) {
+        long[][] cols = scratch.get();
+        return query.distance(candidate, cols[0], cols[1]);
+    }
+
+    // Edit distance from the query to every candidate
+    public int[] distances(CharSequence[] candidates) {
+        return distances(Arrays.asList(candidates));
+    }
+
+    public int[] distances(List<? extends CharSequence> candidates) {
+        int[] result = new int[candidates.size()];
+        pool.invoke(new Task(candidates, result, Integer.MAX_VALUE, 0, 0, result.length));
+        return result;
+    }
+
+    // Every candidate within distance k of the query, sorted by distance
+    public long[] withinDistance(CharSequence[] candidates, int k) {
+        return withinDistance(Arrays.asList(candidates), k);
+    }
+
+    public long[] withinDistance(List<? extends CharSequence> candidates, int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be non-negative");
+        int[] result = new int[candidates.size()];
+        pool.invoke(new Task(candidates, result, k, 0, 0, result.length));
+
+        int count = 0;
+        for (int d : result) if (d <= k) count++;
+        long[] matches = new long[count];
+        count = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] <= k) matches[count++] = pack(result[i], i);
+        }
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    // Same as above, reading the candidates in batches
+    public long[] withinDistance(Iterable<? extends CharSequence> candidates, int k) {
+        return withinDistance(candidates.iterator(), k);
+    }
+
+    public long[] withinDistance(Stream<? extends CharSequence> candidates, int k) {
+        return withinDistance(candidates.iterator(), k);
+    }
+
+    private long[] withinDistance(Iterator<? extends CharSequence> candidates, final int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be non-negative");
+        final long[][] matches = {new long[16]};
+        final int[] count = {0};
+        inBatches(candidates, 0, new BatchResults() {
+            public int bound() {
+                return k;
+            }
+
+            public void accept(int[] result, int length, int offset) {
+                for (int i = 0; i < length; i++) {
+                    if (result[i] > k) continue;
+                    if (count[0] == matches[0].length) matches[0] = Arrays.copyOf(matches[0], 2 * count[0]);
+                    matches[0][count[0]++] = pack(result[i], offset + i);
+                }
+            }
+        });
+        long[] sorted = Arrays.copyOf(matches[0], count[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // The count candidates closest to the query, sorted by distance. Ties are
+    // broken by the lower index
+    public long[] nearest(CharSequence[] candidates, int count) {
+        return nearest(Arrays.asList(candidates), count);
+    }
+
+    public long[] nearest(List<? extends CharSequence> candidates, int count) {
+        if (count < 0) throw new IllegalArgumentException("count must be non-negative");
+        int[] result = new int[candidates.size()];
+        count = Math.min(count, result.length);
+        if (count == 0) return new long[0];
+        pool.invoke(new Task(candidates, result, Integer.MAX_VALUE, count, 0, result.length));
+
+        // Each leaf only underestimates candidates that have at least count
+        // better candidates in the same leaf, so those can never be selected
+        // here either
+        Heap best = new Heap(count);
+        for (int i = 0; i < result.length; i++) best.offer(pack(result[i], i));
+        long[] matches = Arrays.copyOf(best.data, best.size);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    // Same as above, reading the candidates in batches
+    public long[] nearest(Iterable<? extends CharSequence> candidates, int count) {
+        return nearest(candidates.iterator(), count);
+    }
+
+    public long[] nearest(Stream<? extends CharSequence> candidates, int count) {
+        return nearest(candidates.iterator(), count);
+    }
+
+    private long[] nearest(Iterator<? extends CharSequence> candidates, int count) {
+        if (count < 0) throw new IllegalArgumentException("count must be non-negative");
+        if (count == 0) return new long[0];
+        final Heap best = new Heap(count);
+        inBatches(candidates, count, new BatchResults() {
+            // Candidates past the worst of the best so far can't be selected
+            public int bound() {
+                return best.isFull() ? distanceOf(best.max()) : Integer.MAX_VALUE;
+            }
+
+            public void accept(int[] result, int length, int offset) {
+                for (int i = 0; i < length; i++) best.offer(pack(result[i], offset + i));
+            }
+        });
+        long[] matches = Arrays.copyOf(best.data, best.size);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    // Receives the distances of each batch of candidates in order
+    private interface BatchResults {
+        // Bound for the next batch
+        int bound();
+
+        // result[i] belongs to the candidate at position offset + i
+        void accept(int[] result, int length, int offset);
+    }
+
+    // Read candidates BATCH at a time. Each batch is computed on the pool
+    // while the next one is read
+    private void inBatches(Iterator<? extends CharSequence> candidates, int nearest, BatchResults results) {
+        CharSequence[] reading = new CharSequence[BATCH];
+        CharSequence[] running = new CharSequence[BATCH];
+        int[] result = new int[BATCH];
+        int length = fill(candidates, reading);
+        long offset = 0;
+        while (length > 0) {
+            if (offset + length > Integer.MAX_VALUE) throw new IllegalArgumentException("too many candidates");
+            CharSequence[] swap = running;
+            running = reading;
+            reading = swap;
+            ForkJoinTask<Void> task = pool.submit(
+                new Task(Arrays.asList(running), result, results.bound(), nearest, 0, length));
+            int next = fill(candidates, reading);
+            task.join();
+            results.accept(result, length, (int) offset);
+            offset += length;
+            length = next;
+        }
+    }
+
+    // Read up to buffer.length candidates. Returns how many were read
+    private static int fill(Iterator<? extends CharSequence> candidates, CharSequence[] buffer) {
+        int length = 0;
+        while (length < buffer.length && candidates.hasNext()) buffer[length++] = candidates.next();
+        return length;
+    }
+
+    static long pack(int distance, int index) {
+        return ((long) distance << 32) | index;
+    }
+
+    // Bounded max-heap of packed matches that keeps the smallest values. Also
+    // used by FuzzyIndex
+    static class Heap {
+        long[] data;
+        int size;
+
+        Heap(int capacity) {
+            this.data = new long[capacity];
+        }
+
+        boolean isFull() {
+            return size == data.length;
+        }
+
+        long max() {
+            return data[0];
+        }
+
+        void offer(long value) {
+            if (size < data.length) {
+                int i = size++;
+                while (i > 0 && data[(i - 1) / 2] < value) {
+                    data[i] = data[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                data[i] = value;
+            } else if (value < data[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && data[child + 1] > data[child]) child++;
+                    if (data[child] <= value) break;
+                    data[i] = data[child];
+                    i = child;
+                }
+                data[i] = value;
+            }
+        }
+    }
+
+    // Fills result[lo..hi). If nearest > 0, each leaf tightens its bound to
+    // the worst of its nearest best candidates so far
+    private class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private List<? extends CharSequence> candidates;
+        private int[] result;
+        private int k;
+        private int nearest;
+        private int lo;
+        private int hi;
+
+        private Task(List<? extends CharSequence> candidates, int[] result, int k,
+                     int nearest, int lo, int hi) {
+            this.candidates = candidates;
+            this.result = result;
+            this.k = k;
+            this.nearest = nearest;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CHUNK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Task(candidates, result, k, nearest, lo, mid),
+                          new Task(candidates, result, k, nearest, mid, hi));
+                return;
+            }
+
+            long[][] cols = scratch.get();
+            Heap best = nearest > 0 ? new Heap(nearest) : null;
+            int bound = k;
+            for (int i = lo; i < hi; i++) {
+                int d = query.boundedDistance(candidates.get(i), bound, cols[0], cols[1]);
+                result[i] = d;
+                if (best != null) {
+                    best.offer(pack(d, i));
+                    if (best.isFull()) bound = distanceOf(best.max());
+                }
+            }
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        String[] animals = {"CART", "DOG", "CAT", "COAT", "BAT"};
+        (new TestCase("CAT", animals, 1, new long[]{pack(0, 2), pack(1, 0), pack(1, 3), pack(1, 4)},
+                      2, new long[]{pack(0, 2), pack(1, 0)})).run();
+        (new TestCase("", animals, 3, new long[]{pack(3, 1), pack(3, 2), pack(3, 4)},
+                      1, new long[]{pack(3, 1)})).run();
+        (new TestCase("CAT", new String[]{}, 1, new long[]{}, 2, new long[]{})).run();
+
+        // Enough candidates to span several leaves, with a query long enough
+        // to need more than one word
+        Random r = new Random(0);
+        String[] words = new String[5000];
+        for (int i = 0; i < words.length; i++) words[i] = randomString(r, 60 + r.nextInt(20), 3);
+        String query = randomString(r, 70, 3);
+        int[] expected = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            expected[i] = EditDistance.bottomUpEditDistance(query, words[i]);
+        }
+        long[] sorted = new long[words.length];
+        for (int i = 0; i < words.length; i++) sorted[i] = pack(expected[i], i);
+        Arrays.sort(sorted);
+        int k = distanceOf(sorted[100]);
+        int within = 0;
+        while (within < sorted.length && distanceOf(sorted[within]) <= k) within++;
+        (new TestCase(query, words, k, Arrays.copyOf(sorted, within),
+                      25, Arrays.copyOf(sorted, 25))).run();
+
+        // A stream spanning several batches gives the same matches as the
+        // array it came from
+        String[] dictionary = new String[2 * BATCH + 123];
+        for (int i = 0; i < dictionary.length; i++) dictionary[i] = randomString(r, 3 + r.nextInt(6), 4);
+        BatchEditDistance batch = new BatchEditDistance("ABCDA");
+        for (int bound = 0; bound <= 2; bound++) {
+            assert Arrays.equals(batch.withinDistance(Arrays.stream(dictionary), bound),
+                                 batch.withinDistance(dictionary, bound)):
+                "withinDistance failed for a stream with k = " + bound;
+        }
+        for (int count : new int[]{1, 50, 5000}) {
+            assert Arrays.equals(batch.nearest(Arrays.stream(dictionary), count),
+                                 batch.nearest(dictionary, count)):
+                "nearest failed for a stream with count = " + count;
+        }
+        assert batch.nearest(Stream.<String>empty(), 3).length == 0 : "nearest failed for an empty stream";
+        System.out.println("Passed all test cases");
+    }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private String query;
+        private String[] candidates;
+        private int k;
+        private long[] within;
+        private int count;
+        private long[] nearest;
+
+        private TestCase(String query, String[] candidates, int k, long[] within,
+                         int count, long[] nearest) {
+            this.query = query;
+            this.candidates = candidates;
+            this.k = k;
+            this.within = within;
+            this.count = count;
+            this.nearest = nearest;
+        }
+
+        private void run() {
+            BatchEditDistance batch = new BatchEditDistance(query);
+            int[] distances = batch.distances(candidates);
+            for (int i = 0; i < candidates.length; i++) {
+                assert distances[i] == EditDistance.bottomUpEditDistance(query, candidates[i]):
+                    "distances failed for query = " + query + ", candidate = " + candidates[i];
+            }
+            assert Arrays.equals(batch.withinDistance(candidates, k), within):
+                "withinDistance failed for query = " + query + ", k = " + k;
+            assert Arrays.equals(batch.nearest(candidates, count), nearest):
+                "nearest failed for query = " + query + ", count = " + count;
+            Iterable<String> iterable = Arrays.asList(candidates)::iterator;
+            assert Arrays.equals(batch.withinDistance(iterable, k), within):
+                "withinDistance failed for an Iterable, query = " + query + ", k = " + k;
+            assert Arrays.equals(batch.nearest(iterable, count), nearest):
+                "nearest failed for an Iterable, query = " + query + ", count = " + count;
+        }
+    }
+}
@@ -0,0 +1,882 @@
+/*
+ * Title: Benchmark
+ * Date: 10/18/2026
+ *
+ * Micro-benchmark harness for every bruteForce/topDown/bottomUp variant in
+ * this directory. Each variant is run over a set of input sizes with a warmup
+ * phase followed by several measured iterations. For every case we report the
+ * mean time per call, its standard deviation across iterations and the number
+ * of bytes allocated per call (the same figure JMH reports as
+ * gc.alloc.rate.norm with -prof gc).
+ *
+ * Results are written as CSV so that two runs can be diffed to catch
+ * regressions between releases.
+ *
+ * eg.
+ * java Benchmark                               (run everything, print table)
+ * java Benchmark -f Knapsack -o new.csv        (only Knapsack, save report)
+ * java Benchmark -c old.csv new.csv 10         (flag cases >10% slower)
+ *
+ * Options:
+ * -f <filter>   only run cases whose "group.variant" contains filter
+ * -o <file>     write the CSV report to file
+ * -w <ms>       warmup time per case (default 200)
+ * -m <ms>       measurement time per iteration (default 100)
+ * -i <n>        measured iterations per case (default 5)
+ * -c <old> <new> [pct]  compare two reports, exit 1 on any regression
+ *
+ * Execution: javac Benchmark.java && java Benchmark
+ */
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class Benchmark {
+
+    // A single benchmarked call. We return a value and fold it into a sink so
+    // the JIT can't eliminate the work as dead code
+    public interface Op {
+        long run();
+    }
+
+    // One (group, variant, size) combination to measure
+    private static class Case {
+        private String group;
+        private String variant;
+        private int size;
+        private Op op;
+
+        private Case(String group, String variant, int size, Op op) {
+            this.group = group;
+            this.variant = variant;
+            this.size = size;
+            this.op = op;
+        }
+
+        private String name() {
+            return group + "." + variant;
+        }
+    }
+
+    // Measured result for one case
+    private static class Result {
+        private String name;
+        private int size;
+        private double nsPerOp;
+        private double nsStdDev;
+        private double bytesPerOp;
+
+        private Result(String name, int size, double nsPerOp, double nsStdDev,
+                       double bytesPerOp) {
+            this.name = name;
+            this.size = size;
+            this.nsPerOp = nsPerOp;
+            this.nsStdDev = nsStdDev;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        private String key() {
+            return name + "@" + size;
+        }
+    }
+
+    private static final String HEADER = "benchmark,size,ns_per_op,ns_stddev,bytes_per_op";
+    private static final long SEED = 42;
+
+    private static List<Case> cases = new ArrayList<Case>();
+    private static volatile long sink;
+
+    private static void register(String group, String variant, int size, Op op) {
+        cases.add(new Case(group, variant, size, op));
+    }
+
+    // Register every variant of every problem. Brute force variants are
+    // exponential so they only get small sizes
+    private static void registerAll() {
+        registerArrayCombinations();
+        registerChainExecutor();
+        registerEditDistance();
+        registerEggDrop();
+        registerFibonacci();
+        registerFloorTiling();
+        registerKnapsack();
+        registerKnapsackVariants();
+        registerKnightProbability();
+        registerLongestIncreasingSubsequence();
+        registerMakingChange();
+        registerMatrixChainMultiplication();
+        registerMatrixPath();
+        registerRodCutting();
+        registerSparseKnapsack();
+        registerSquareSubmatrix();
+        registerTargetSum();
+    }
+
+    private static void registerArrayCombinations() {
+        for (int n : new int[]{10, 20}) {
+            final int[] arr = randomInts(n, 1, 100, n);
+            register("ArrayCombinations", "bruteForceCombos", n,
+                     () -> ArrayCombinations.bruteForceCombos(arr));
+        }
+        for (int n : new int[]{10, 20, 30}) {
+            final int[] arr = randomInts(n, 1, 100, n);
+            register("ArrayCombinations", "topDownCombos", n,
+                     () -> ArrayCombinations.topDownCombos(arr));
+            register("ArrayCombinations", "bottomUpCombos", n,
+                     () -> ArrayCombinations.bottomUpCombos(arr));
+        }
+    }
+
+    // End to end: plan the chain and multiply it out, against multiplying
+    // from left to right with the same kernel
+    private static void registerChainExecutor() {
+        ChainExecutor executor = new ChainExecutor();
+        for (int n : new int[]{4, 8, 16}) {
+            Random r = new Random(SEED ^ n);
+            // Alternate wide and narrow so the order matters
+            final ChainExecutor.DenseMatrix[] chain = new ChainExecutor.DenseMatrix[n];
+            int rows = 400;
+            for (int i = 0; i < n; i++) {
+                int cols = i % 2 == 0 ? 10 + r.nextInt(40) : 200 + r.nextInt(400);
+                chain[i] = new ChainExecutor.DenseMatrix(rows, cols);
+                for (int j = 0; j < rows; j++) chain[i].set(j, r.nextInt(cols), 1);
+                rows = cols;
+            }
+            register("ChainExecutor", "execute", n,
+                     () -> executor.execute(chain).rows());
+            register("ChainExecutor", "executeLeftToRight", n,
+                     () -> executor.executeLeftToRight(chain).rows());
+        }
+        for (int n : new int[]{128, 512}) {
+            final ChainExecutor.DenseMatrix a = new ChainExecutor.DenseMatrix(n, n);
+            final ChainExecutor.DenseMatrix b = ChainExecutor.DenseMatrix.offHeap(n, n);
+            register("ChainExecutor", "multiply", n,
+                     () -> executor.multiply(a, a).rows());
+            register("ChainExecutor", "multiply.offHeap", n,
+                     () -> executor.multiply(b, b).rows());
+        }
+    }
+
+    private static void registerEditDistance() {
+        for (int n : new int[]{6, 9}) {
+            final String s1 = randomString(n, 4, n);
+            final String s2 = randomString(n, 4, n + 1);
+            register("EditDistance", "bruteForceEditDistance", n,
+                     () -> EditDistance.bruteForceEditDistance(s1, s2));
+        }
+        for (int n : new int[]{100, 1000, 2000}) {
+            final String s1 = randomString(n, 4, n);
+            final String s2 = randomString(n, 4, n + 1);
+            register("EditDistance", "topDownEditDistance", n,
+                     () -> EditDistance.topDownEditDistance(s1, s2));
+            register("EditDistance", "topDownEditDistanceIterative", n,
+                     () -> EditDistance.topDownEditDistanceIterative(s1, s2));
+            register("EditDistance", "bottomUpEditDistance", n,
+                     () -> EditDistance.bottomUpEditDistance(s1, s2));
+            register("EditDistance", "bitParallelEditDistance", n,
+                     () -> EditDistance.bitParallelEditDistance(s1, s2));
+        }
+        // Thresholded queries mostly compare near matches, so use a copy of
+        // s1 with a few substitutions
+        for (int n : new int[]{100, 1000, 2000}) {
+            final String s1 = randomString(n, 4, n);
+            final String s2 = mutate(s1, 8, n);
+            register("EditDistance", "boundedEditDistance", n,
+                     () -> EditDistance.boundedEditDistance(s1, s2, 16));
+        }
+        for (int n : new int[]{100, 1000, 2000}) {
+            final String s1 = randomString(n, 4, n);
+            final String s2 = randomString(n, 4, n + 1);
+            register("EditScript", "compute", n,
+                     () -> EditScript.compute(s1, s2).distance());
+        }
+        for (int n : new int[]{1000, 10000, 100000}) {
+            final String[] words = new String[n];
+            for (int i = 0; i < n; i++) words[i] = randomString(8 + i % 8, 4, i);
+            final BatchEditDistance batch = new BatchEditDistance(randomString(12, 4, n));
+            register("BatchEditDistance", "distances", n,
+                     () -> batch.distances(words).length);
+            register("BatchEditDistance", "withinDistance", n,
+                     () -> batch.withinDistance(words, 3).length);
+            register("BatchEditDistance", "nearest", n,
+                     () -> batch.nearest(words, 10).length);
+        }
+        for (int n : new int[]{10000, 100000}) {
+            final String[] words = new String[n];
+            for (int i = 0; i < n; i++) words[i] = randomString(6 + i % 8, 8, i);
+            final String query = randomString(10, 8, n);
+            for (FuzzyIndex.Mode mode : FuzzyIndex.Mode.values()) {
+                final FuzzyIndex index = FuzzyIndex.build(words, mode);
+                register("FuzzyIndex", "within" + mode, n, () -> index.within(query, 2).length);
+                register("FuzzyIndex", "nearest" + mode, n, () -> index.nearest(query, 10).length);
+            }
+        }
+        // Overhead of custom costs compared with bottomUpEditDistance
+        final WeightedEditDistance unitCosts =
+            new WeightedEditDistance(new WeightedEditDistance.Costs(1, 1, 1));
+        final WeightedEditDistance customCosts = new WeightedEditDistance(
+            new WeightedEditDistance.Costs(2, 1, 1).substituteEither('A', 'B', 1).delete('C', 2));
+        final WeightedEditDistance affineCosts = new WeightedEditDistance(
+            new WeightedEditDistance.Costs(2, 1, 1).substituteEither('A', 'B', 1).gapOpen(3));
+        for (int n : new int[]{100, 1000, 2000}) {
+            final String s1 = randomString(n, 4, n);
+            final String s2 = randomString(n, 4, n + 1);
+            register("WeightedEditDistance", "unitCosts", n, () -> unitCosts.distance(s1, s2));
+            register("WeightedEditDistance", "customCosts", n, () -> customCosts.distance(s1, s2));
+            register("WeightedEditDistance", "affineCosts", n, () -> affineCosts.distance(s1, s2));
+        }
+        // One append against a reference of length n, compared with
+        // recomputing the whole distance after each keystroke
+        for (int n : new int[]{100, 1000, 2000}) {
+            final String reference = randomString(n, 4, n);
+            final StreamingEditDistance session = new StreamingEditDistance(reference, 16);
+            register("StreamingEditDistance", "append", n, () -> {
+                if (session.length() >= 4 * n) session.reset();
+                return session.append('A');
+            });
+        }
+        final ParallelEditDistance parallel = new ParallelEditDistance();
+        for (int n : new int[]{1000, 2000, 20000}) {
+            final String s1 = randomString(n, 4, n);
+            final String s2 = randomString(n, 4, n + 1);
+            register("ParallelEditDistance", "editDistance", n,
+                     () -> parallel.editDistance(s1, s2));
+        }
+    }
+
+    // topDownEggDrop doesn't pass its cache down to the recursive calls, so it
+    // is as exponential as the brute force solution and gets the same sizes
+    private static void registerEggDrop() {
+        for (int n : new int[]{10, 20}) {
+            final int floors = n;
+            register("EggDrop", "bruteForceEggDrop", n,
+                     () -> EggDrop.bruteForceEggDrop(2, floors));
+            register("EggDrop", "topDownEggDrop", n,
+                     () -> EggDrop.topDownEggDrop(2, floors));
+        }
+        for (int n : new int[]{100, 1000, 2000}) {
+            final int floors = n;
+            register("EggDrop", "bottomUpEggDrop", n,
+                     () -> EggDrop.bottomUpEggDrop(4, floors));
+        }
+    }
+
+    private static void registerFibonacci() {
+        for (int n : new int[]{10, 20, 25}) {
+            final int fib = n;
+            register("Fibonacci", "bruteForceFib", n, () -> Fibonacci.bruteForceFib(fib));
+        }
+        for (int n : new int[]{10, 1000, 5000}) {
+            final int fib = n;
+            register("Fibonacci", "topDownFib", n, () -> Fibonacci.topDownFib(fib));
+            register("Fibonacci", "topDownFibIterative", n, () -> Fibonacci.topDownFibIterative(fib));
+            register("Fibonacci", "bottomUpFib", n, () -> Fibonacci.bottomUpFib(fib));
+            register("Fibonacci", "bottomUpFibOptimized", n,
+                     () -> Fibonacci.bottomUpFibOptimized(fib));
+        }
+    }
+
+    private static void registerFloorTiling() {
+        for (int n : new int[]{10, 20, 25}) {
+            final int width = n;
+            register("FloorTiling", "bruteForceFloorTiling", n,
+                     () -> FloorTiling.bruteForceFloorTiling(width));
+        }
+        for (int n : new int[]{10, 1000, 5000}) {
+            final int width = n;
+            register("FloorTiling", "topDownFloorTiling", n,
+                     () -> FloorTiling.topDownFloorTiling(width));
+            register("FloorTiling", "bottomUpFloorTiling", n,
+                     () -> FloorTiling.bottomUpFloorTiling(width));
+            register("FloorTiling", "bottomUpFloorTilingSpaceOptimized", n,
+                     () -> FloorTiling.bottomUpFloorTilingSpaceOptimized(width));
+        }
+    }
+
+    private static void registerKnapsack() {
+        final BranchAndBoundKnapsack bnb = new BranchAndBoundKnapsack();
+        for (int n : new int[]{10, 20}) {
+            final Knapsack.Item[] items = randomItems(n, n);
+            final int W = n * 10;
+            register("Knapsack", "bruteForceKnapsack", n,
+                     () -> Knapsack.bruteForceKnapsack(items, W));
+            register("BranchAndBoundKnapsack", "branchAndBound", n,
+                     () -> bnb.branchAndBound(items, W, 0).value());
+        }
+        for (int n : new int[]{20, 100, 200}) {
+            final Knapsack.Item[] items = randomItems(n, n);
+            final int W = n * 10;
+            register("Knapsack", "topDownKnapsackArray", n,
+                     () -> Knapsack.topDownKnapsackArray(items, W));
+            register("Knapsack", "topDownKnapsackHashMap", n,
+                     () -> Knapsack.topDownKnapsackHashMap(items, W));
+            register("Knapsack", "topDownKnapsackMemo", n,
+                     () -> Knapsack.topDownKnapsackMemo(items, W));
+            register("Knapsack", "topDownKnapsackIterative", n,
+                     () -> Knapsack.topDownKnapsackIterative(items, W));
+            register("Knapsack", "bottomUpKnapsack", n,
+                     () -> Knapsack.bottomUpKnapsack(items, W));
+            register("Knapsack", "bottomUpKnapsackSpaceOptimized", n,
+                     () -> Knapsack.bottomUpKnapsackSpaceOptimized(items, W));
+        }
+        // Large capacities, where the dp row is what matters
+        final ParallelKnapsack sequential = new ParallelKnapsack(ForkJoinPool.commonPool(), Integer.MAX_VALUE / 2);
+        final ParallelKnapsack parallel = new ParallelKnapsack();
+        for (int n : new int[]{100, 300}) {
+            final Knapsack.Item[] items = new Knapsack.Item[n];
+            final int W = n * 1000;
+            final int[] weights = new int[n];
+            final int[] values = new int[n];
+            final long[] longValues = new long[n];
+            Random r = new Random(n);
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + r.nextInt(W / 10);
+                values[i] = 1 + r.nextInt(1000);
+                longValues[i] = values[i];
+                items[i] = new Knapsack.Item(weights[i], values[i]);
+            }
+            register("Knapsack", "bottomUpKnapsackSpaceOptimized", n * 1000,
+                     () -> Knapsack.bottomUpKnapsackSpaceOptimized(items, W));
+            register("ParallelKnapsack", "maxValue.sequential", n * 1000,
+                     () -> sequential.maxValue(weights, values, W));
+            register("ParallelKnapsack", "maxValue.parallel", n * 1000,
+                     () -> parallel.maxValue(weights, values, W));
+            register("ParallelKnapsack", "maxValue.long", n * 1000,
+                     () -> parallel.maxValue(weights, longValues, W));
+            register("KnapsackSelection", "computeBitset", n * 1000,
+                     () -> KnapsackSelection.computeBitset(weights, values, W).value());
+            register("KnapsackSelection", "computeLinearSpace", n * 1000,
+                     () -> KnapsackSelection.computeLinearSpace(weights, values, W).value());
+            register("SparseKnapsack", "maxValue", n * 1000,
+                     () -> SparseKnapsack.maxValue(weights, longValues, W));
+            register("BranchAndBoundKnapsack", "branchAndBound", n * 1000,
+                     () -> bnb.branchAndBound(items, W, 0).value());
+            register("BranchAndBoundKnapsack", "solve", n * 1000,
+                     () -> bnb.solve(items, W).value());
+        }
+    }
+
+    private static void registerSparseKnapsack() {
+        // Byte-sized capacities that no dense row could hold
+        for (int n : new int[]{20, 40, 80}) {
+            final int[] weights = new int[n];
+            final long[] values = new long[n];
+            Random r = new Random(n);
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + r.nextInt(100_000_000);
+                values[i] = 1 + r.nextInt(1_000_000);
+            }
+            register("SparseKnapsack", "maxValue.hugeW", n,
+                     () -> SparseKnapsack.maxValue(weights, values, 1_000_000_000));
+        }
+    }
+
+    private static void registerKnapsackVariants() {
+        for (int n : new int[]{20, 100}) {
+            final int[] weights = new int[n];
+            final int[] values = new int[n];
+            final int[] counts = new int[n];
+            final int[][] weights2 = new int[n][2];
+            final int[][] weights3 = new int[n][3];
+            Random r = new Random(n);
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + r.nextInt(30);
+                values[i] = 1 + r.nextInt(100);
+                counts[i] = 1 + r.nextInt(50);
+                for (int d = 0; d < 3; d++) weights3[i][d] = 1 + r.nextInt(10);
+                weights2[i][0] = weights3[i][0];
+                weights2[i][1] = weights3[i][1];
+            }
+            final int W = n * 50;
+            final int[] caps2 = {n * 4, n * 4};
+            final int[] caps3 = {n, n, n};
+            register("KnapsackVariants", "boundedKnapsack", n,
+                     () -> KnapsackVariants.boundedKnapsack(weights, values, counts, W));
+            register("KnapsackVariants", "boundedKnapsackNaive", n,
+                     () -> KnapsackVariants.boundedKnapsackNaive(weights, values, counts, W));
+            register("KnapsackVariants", "unboundedKnapsack", n,
+                     () -> KnapsackVariants.unboundedKnapsack(weights, values, W));
+            register("KnapsackVariants", "unboundedKnapsackNaive", n,
+                     () -> KnapsackVariants.unboundedKnapsackNaive(weights, values, W));
+            register("KnapsackVariants", "multiDimensionalKnapsack.2d", n,
+                     () -> KnapsackVariants.multiDimensionalKnapsack(weights2, values, caps2));
+            register("KnapsackVariants", "twoDimensionalKnapsackNaive", n,
+                     () -> KnapsackVariants.twoDimensionalKnapsackNaive(weights2, values, caps2));
+            register("KnapsackVariants", "multiDimensionalKnapsack.3d", n,
+                     () -> KnapsackVariants.multiDimensionalKnapsack(weights3, values, caps3));
+        }
+    }
+
+    private static void registerKnightProbability() {
+        for (int n : new int[]{4, 6}) {
+            final KnightProbability kp = new KnightProbability(8, 8);
+            final int moves = n;
+            register("KnightProbability", "bruteForceKnightProbability", n,
+                     () -> Double.doubleToLongBits(
+                         kp.bruteForceKnightProbability(3, 3, moves)));
+        }
+        for (int n : new int[]{8, 32, 64}) {
+            final KnightProbability kp = new KnightProbability(n, n);
+            final int moves = n;
+            register("KnightProbability", "topDownKnightProbability", n,
+                     () -> Double.doubleToLongBits(
+                         kp.topDownKnightProbability(n / 2, n / 2, moves)));
+            register("KnightProbability", "bottomUpKnightProbability", n,
+                     () -> Double.doubleToLongBits(
+                         kp.bottomUpKnightProbability(n / 2, n / 2, moves)));
+            register("KnightProbability", "bottomUpKnightProbabilitySpaceOptimized", n,
+                     () -> Double.doubleToLongBits(
+                         kp.bottomUpKnightProbabilitySpaceOptimized(n / 2, n / 2, moves)));
+            register("KnightProbability", "frontierKnightProbability", n,
+                     () -> Double.doubleToLongBits(
+                         kp.frontierKnightProbability(n / 2, n / 2, moves)));
+        }
+        // A 10000x10000 board, sized by the number of moves, starting near a
+        // corner so that the knight can fall off
+        final KnightProbability huge = new KnightProbability(10000, 10000);
+        for (int n : new int[]{8, 64, 256}) {
+            final int moves = n;
+            register("KnightProbability", "frontierKnightProbability.10000x10000", n,
+                     () -> Double.doubleToLongBits(
+                         huge.frontierKnightProbability(3, 5, moves)));
+        }
+    }
+
+    private static void registerLongestIncreasingSubsequence() {
+        for (int n : new int[]{10, 20}) {
+            final int[] arr = randomInts(n, 0, 1000, n);
+            register("LongestIncreasingSubsequence", "bruteForceLIS", n,
+                     () -> LongestIncreasingSubsequence.bruteForceLIS(arr));
+        }
+        for (int n : new int[]{100, 1000, 2000}) {
+            final int[] arr = randomInts(n, 0, 1000, n);
+            register("LongestIncreasingSubsequence", "topDownLIS", n,
+                     () -> LongestIncreasingSubsequence.topDownLIS(arr));
+            register("LongestIncreasingSubsequence", "bottomUpLIS", n,
+                     () -> LongestIncreasingSubsequence.bottomUpLIS(arr));
+        }
+    }
+
+    private static void registerMakingChange() {
+        final MakingChange mc = new MakingChange(new int[]{25, 10, 5, 1});
+        for (int n : new int[]{10, 30}) {
+            final int amount = n;
+            register("MakingChange", "bruteForceChange", n,
+                     () -> mc.bruteForceChange(amount));
+        }
+        for (int n : new int[]{100, 1000, 5000}) {
+            final int amount = n;
+            register("MakingChange", "topDownChange", n, () -> mc.topDownChange(amount));
+            register("MakingChange", "topDownChangeIterative", n,
+                     () -> mc.topDownChangeIterative(amount));
+            register("MakingChange", "bottomUpChange", n, () -> mc.bottomUpChange(amount));
+        }
+    }
+
+    private static void registerMatrixChainMultiplication() {
+        for (int n : new int[]{6, 10}) {
+            final MatrixChainMultiplication.Matrix[] arr = randomChain(n, n);
+            register("MatrixChainMultiplication", "bruteForceMCM", n,
+                     () -> MatrixChainMultiplication.bruteForceMCM(arr));
+        }
+        for (int n : new int[]{10, 100, 200}) {
+            final MatrixChainMultiplication.Matrix[] arr = randomChain(n, n);
+            register("MatrixChainMultiplication", "topDownMCM", n,
+                     () -> MatrixChainMultiplication.topDownMCM(arr));
+            register("MatrixChainMultiplication", "bottomUpMCM", n,
+                     () -> MatrixChainMultiplication.bottomUpMCM(arr));
+        }
+        ParallelMatrixChain sequential = new ParallelMatrixChain(new ForkJoinPool(1), Integer.MAX_VALUE);
+        ParallelMatrixChain parallel = new ParallelMatrixChain();
+        for (int n : new int[]{100, 200, 500, 1000}) {
+            final MatrixChainMultiplication.Matrix[] arr = randomChain(n, n);
+            if (n == 500) {
+                register("MatrixChainMultiplication", "bottomUpMCM", n,
+                         () -> MatrixChainMultiplication.bottomUpMCM(arr));
+            }
+            register("MatrixChainMultiplication", "ParallelMatrixChain.sequential", n,
+                     () -> sequential.solve(arr).cost());
+            register("MatrixChainMultiplication", "ParallelMatrixChain.parallel", n,
+                     () -> parallel.solve(arr).cost());
+        }
+        // A cached plan, and a chain that only adds 10 matrices to a solved one
+        MatrixChainPlanCache cache = new MatrixChainPlanCache(16, MatrixChainPlanCache.Policy.LRU, sequential);
+        for (int n : new int[]{100, 500, 1000}) {
+            final MatrixChainMultiplication.Matrix[] arr = randomChain(n, n);
+            final int[] dims = ParallelMatrixChain.dims(arr);
+            final ParallelMatrixChain.Plan prefix = sequential.solve(Arrays.copyOf(dims, n - 9));
+            cache.plan(dims);
+            register("MatrixChainMultiplication", "MatrixChainPlanCache.hit", n,
+                     () -> cache.plan(dims).cost());
+            register("MatrixChainMultiplication", "ParallelMatrixChain.sequential.prefix", n,
+                     () -> sequential.solve(dims, prefix).cost());
+        }
+        // Where the O(n log n) and O(n) solutions overtake the cubic ones
+        for (int n : new int[]{10, 30}) {
+            final MatrixChainMultiplication.Matrix[] arr = randomChain(n, n);
+            register("MatrixChainMultiplication", "ParallelMatrixChain.sequential", n,
+                     () -> sequential.solve(arr).cost());
+        }
+        for (int n : new int[]{10, 30, 100, 200, 500, 1000, 10000, 100000, 1000000}) {
+            final MatrixChainMultiplication.Matrix[] arr = randomChain(n, n);
+            register("MatrixChainMultiplication", "HuShingMatrixChain.exactCost", n,
+                     () -> HuShingMatrixChain.exactCost(arr));
+            register("MatrixChainMultiplication", "HuShingMatrixChain.approximateCost", n,
+                     () -> HuShingMatrixChain.approximateCost(arr));
+        }
+    }
+
+    private static void registerMatrixPath() {
+        for (int n : new int[]{5, 10}) {
+            final int[][] arr = randomGrid(n, n);
+            register("MatrixPath", "bruteForceMaxPath", n,
+                     () -> MatrixPath.bruteForceMaxPath(arr));
+        }
+        for (int n : new int[]{10, 100, 500}) {
+            final int[][] arr = randomGrid(n, n);
+            register("MatrixPath", "topDownMaxPath", n,
+                     () -> MatrixPath.topDownMaxPath(arr));
+            register("MatrixPath", "bottomUpMaxPath", n,
+                     () -> MatrixPath.bottomUpMaxPath(arr));
+        }
+    }
+
+    private static void registerRodCutting() {
+        for (int n : new int[]{10, 20}) {
+            final int[] prices = randomInts(n, 1, 100, n);
+            final int length = n;
+            register("RodCutting", "bruteForceRodCutting", n,
+                     () -> RodCutting.bruteForceRodCutting(prices, length));
+        }
+        for (int n : new int[]{100, 1000, 2000}) {
+            final int[] prices = randomInts(n, 1, 100, n);
+            final int length = n;
+            register("RodCutting", "topDownRodCutting", n,
+                     () -> RodCutting.topDownRodCutting(prices, length));
+            register("RodCutting", "topDownRodCuttingIterative", n,
+                     () -> RodCutting.topDownRodCuttingIterative(prices, length));
+            register("RodCutting", "bottomUpRodCutting", n,
+                     () -> RodCutting.bottomUpRodCutting(prices, length));
+        }
+    }
+
+    private static void registerSquareSubmatrix() {
+        for (int n : new int[]{4, 6}) {
+            final boolean[][] arr = randomBooleanGrid(n, n);
+            register("SquareSubmatrix", "bruteForceSquareSubmatrix", n,
+                     () -> SquareSubmatrix.bruteForceSquareSubmatrix(arr));
+        }
+        for (int n : new int[]{10, 100, 500}) {
+            final boolean[][] arr = randomBooleanGrid(n, n);
+            register("SquareSubmatrix", "topDownSquareSubmatrix", n,
+                     () -> SquareSubmatrix.topDownSquareSubmatrix(arr));
+            register("SquareSubmatrix", "bottomUpSquareSubmatrix", n,
+                     () -> SquareSubmatrix.bottomUpSquareSubmatrix(arr));
+        }
+    }
+
+    private static void registerTargetSum() {
+        for (int n : new int[]{10, 20}) {
+            final int[] nums = randomInts(n, 1, 10, n);
+            register("TargetSum", "bruteForceTargetSum", n,
+                     () -> TargetSum.bruteForceTargetSum(nums, 3));
+        }
+        for (int n : new int[]{20, 100, 200}) {
+            final int[] nums = randomInts(n, 1, 10, n);
+            register("TargetSum", "topDownTargetSumArray", n,
+                     () -> TargetSum.topDownTargetSumArray(nums, 3));
+            register("TargetSum", "topDownTargetSumHashMap", n,
+                     () -> TargetSum.topDownTargetSumHashMap(nums, 3));
+            register("TargetSum", "topDownTargetSumMemo", n,
+                     () -> TargetSum.topDownTargetSumMemo(nums, 3));
+            register("TargetSum", "topDownTargetSumIterative", n,
+                     () -> TargetSum.topDownTargetSumIterative(nums, 3));
+            register("TargetSum", "bottomUpTargetSum", n,
+                     () -> TargetSum.bottomUpTargetSum(nums, 3));
+            register("TargetSum", "bottomUpTargetSumRolling", n,
+                     () -> TargetSum.bottomUpTargetSumRolling(nums, 3));
+            register("TargetSum", "canReachTargetSum", n,
+                     () -> TargetSum.canReachTargetSum(nums, 3) ? 1 : 0);
+        }
+        // Large values. Every value is even and the target is picked so the
+        // subset has to add up to an odd number, so it's unreachable but
+        // only after processing every value
+        for (int n : new int[]{100, 1000}) {
+            final int[] nums = randomInts(n, 1, 1000, n);
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                nums[i] *= 2;
+                total += nums[i];
+            }
+            final int target = (total / 2) % 2 == 1 ? 0 : 2;
+            register("TargetSum", "bottomUpTargetSumRolling", n,
+                     () -> TargetSum.bottomUpTargetSumRolling(nums, target));
+            register("TargetSum", "canReachTargetSum", n,
+                     () -> TargetSum.canReachTargetSum(nums, target) ? 1 : 0);
+        }
+        // Thousands of small values, counted modulo a prime row by row and
+        // with a product tree of polynomials
+        ConvolutionTargetSum convolution = new ConvolutionTargetSum();
+        for (int n : new int[]{1000, 5000, 20000}) {
+            final int[] nums = randomInts(n, 1, 10, n);
+            long total = 0;
+            for (int num : nums) total += num;
+            final int target = 2 + (int) (total & 1);
+            register("TargetSum", "TargetSumCount.moduloRowByRow", n,
+                     () -> TargetSumCount.modulo(nums, target, ConvolutionTargetSum.MOD));
+            register("TargetSum", "ConvolutionTargetSum", n,
+                     () -> convolution.count(nums, target));
+        }
+        // Values up to 10^12, far too large for any table
+        MeetInTheMiddleTargetSum meet = new MeetInTheMiddleTargetSum();
+        MeetInTheMiddleTargetSum meetSequential = new MeetInTheMiddleTargetSum(new ForkJoinPool(1));
+        for (int n : new int[]{20, 30, 40}) {
+            Random r = new Random(SEED ^ n);
+            final long[] nums = new long[n];
+            for (int i = 0; i < n; i++) nums[i] = 1 + (long) (r.nextDouble() * 1e12);
+            register("TargetSum", "MeetInTheMiddleTargetSum.sequential", n,
+                     () -> meetSequential.count(nums, 0));
+            register("TargetSum", "MeetInTheMiddleTargetSum.parallel", n,
+                     () -> meet.count(nums, 0));
+        }
+        // Up to far past where an int count overflows. The target has the
+        // same parity as the total so the answer isn't trivially 0
+        for (int n : new int[]{100, 200, 1000, 2000}) {
+            final int[] nums = randomInts(n, 1, 10, n);
+            long total = 0;
+            for (int num : nums) total += num;
+            final int target = 2 + (int) (total & 1);
+            register("TargetSum", "TargetSumCount.modulo", n,
+                     () -> TargetSumCount.modulo(nums, target, 1_000_000_007));
+            register("TargetSum", "TargetSumCount.exact", n,
+                     () -> TargetSumCount.exact(nums, target).longValue());
+        }
+    }
+
+    // Input generators. Everything is seeded from the size so that reports
+    // from different runs measure exactly the same inputs
+    private static int[] randomInts(int n, int min, int max, long seed) {
+        Random r = new Random(SEED ^ seed);
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) arr[i] = min + r.nextInt(max - min + 1);
+        return arr;
+    }
+
+    private static String randomString(int n, int alphabet, long seed) {
+        Random r = new Random(SEED ^ seed);
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) chars[i] = (char) ('A' + r.nextInt(alphabet));
+        return new String(chars);
+    }
+
+    // Substitute edits random characters of s
+    private static String mutate(String s, int edits, long seed) {
+        Random r = new Random(SEED ^ seed);
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < edits; i++) chars[r.nextInt(chars.length)] = 'z';
+        return new String(chars);
+    }
+
+    private static Knapsack.Item[] randomItems(int n, long seed) {
+        Random r = new Random(SEED ^ seed);
+        Knapsack.Item[] items = new Knapsack.Item[n];
+        for (int i = 0; i < n; i++) {
+            items[i] = new Knapsack.Item(1 + r.nextInt(30), 1 + r.nextInt(100));
+        }
+        return items;
+    }
+
+    private static MatrixChainMultiplication.Matrix[] randomChain(int n, long seed) {
+        Random r = new Random(SEED ^ seed);
+        int[] dims = new int[n + 1];
+        for (int i = 0; i <= n; i++) dims[i] = 1 + r.nextInt(20);
+        MatrixChainMultiplication.Matrix[] arr = new MatrixChainMultiplication.Matrix[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = new MatrixChainMultiplication.Matrix(dims[i], dims[i+1]);
+        }
+        return arr;
+    }
+
+    // Values are kept to +-1/+-2 so that products stay inside an int
+    private static int[][] randomGrid(int n, long seed) {
+        Random r = new Random(SEED ^ seed);
+        int[][] arr = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                arr[i][j] = r.nextInt(16) == 0 ? (r.nextBoolean() ? 2 : -2)
+                    : (r.nextBoolean() ? 1 : -1);
+            }
+        }
+        return arr;
+    }
+
+    private static boolean[][] randomBooleanGrid(int n, long seed) {
+        Random r = new Random(SEED ^ seed);
+        boolean[][] arr = new boolean[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                arr[i][j] = r.nextInt(8) != 0;
+            }
+        }
+        return arr;
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM doesn't
+    // support allocation accounting
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    // Run op repeatedly for at least the given time. Returns {calls, nanos}
+    private static long[] runFor(Op op, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long calls = 0;
+        long acc = 0;
+        long start = System.nanoTime();
+        long now;
+        do {
+            acc += op.run();
+            calls++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink += acc;
+        return new long[]{calls, now - start};
+    }
+
+    private static Result measure(Case c, long warmupMs, long measureMs, int iterations) {
+        runFor(c.op, warmupMs);
+        double[] samples = new double[iterations];
+        long totalCalls = 0;
+        long allocStart = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long[] run = runFor(c.op, measureMs);
+            samples[i] = (double) run[1] / run[0];
+            totalCalls += run[0];
+        }
+        long allocEnd = allocatedBytes();
+
+        double mean = 0;
+        for (double s : samples) mean += s;
+        mean /= iterations;
+        double variance = 0;
+        for (double s : samples) variance += (s - mean) * (s - mean);
+        double stdDev = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        double bytes = allocStart < 0 ? Double.NaN
+            : (double) (allocEnd - allocStart) / totalCalls;
+        return new Result(c.name(), c.size, mean, stdDev, bytes);
+    }
+
+    private static String toCsv(Result r) {
+        return String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f",
+                             r.name, r.size, r.nsPerOp, r.nsStdDev, r.bytesPerOp);
+    }
+
+    private static Map<String, Result> readReport(String file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<String, Result>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line = in.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException(file + " is not a benchmark report");
+            }
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] f = line.split(",");
+                Result r = new Result(f[0], Integer.parseInt(f[1]),
+                                      Double.parseDouble(f[2]),
+                                      Double.parseDouble(f[3]),
+                                      Double.parseDouble(f[4]));
+                results.put(r.key(), r);
+            }
+        }
+        return results;
+    }
+
+    // Compare two reports. A case regresses if it got slower by more than
+    // the threshold and the difference is larger than the noise in both runs
+    private static boolean compare(String oldFile, String newFile, double pct)
+        throws IOException {
+        Map<String, Result> before = readReport(oldFile);
+        Map<String, Result> after = readReport(newFile);
+        boolean regressed = false;
+        System.out.println(String.format(Locale.ROOT, "%-70s %12s %12s %8s %10s",
+                                         "benchmark", "old ns/op", "new ns/op",
+                                         "change", "B/op diff"));
+        for (Result b : before.values()) {
+            Result a = after.get(b.key());
+            if (a == null) {
+                System.out.println(b.key() + " missing from " + newFile);
+                continue;
+            }
+            double change = 100.0 * (a.nsPerOp - b.nsPerOp) / b.nsPerOp;
+            boolean slower = change > pct
+                && a.nsPerOp - b.nsPerOp > a.nsStdDev + b.nsStdDev;
+            regressed |= slower;
+            System.out.println(String.format(Locale.ROOT, "%-70s %12.1f %12.1f %+7.1f%% %+10.1f%s",
+                                             b.key(), b.nsPerOp, a.nsPerOp, change,
+                                             a.bytesPerOp - b.bytesPerOp,
+                                             slower ? "  REGRESSION" : ""));
+        }
+        return regressed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String filter = "";
+        String output = null;
+        long warmupMs = 200;
+        long measureMs = 100;
+        int iterations = 5;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-f": filter = args[++i]; break;
+                case "-o": output = args[++i]; break;
+                case "-w": warmupMs = Long.parseLong(args[++i]); break;
+                case "-m": measureMs = Long.parseLong(args[++i]); break;
+                case "-i": iterations = Integer.parseInt(args[++i]); break;
+                case "-c":
+                    double pct = i + 3 < args.length ? Double.parseDouble(args[i+3]) : 5.0;
+                    System.exit(compare(args[i+1], args[i+2], pct) ? 1 : 0);
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        registerAll();
+        List<Result> results = new ArrayList<Result>();
+        System.out.println(String.format(Locale.ROOT, "%-70s %8s %14s %12s %14s",
+                                         "benchmark", "size", "ns/op", "+-", "B/op"));
+        for (Case c : cases) {
+            if (!c.name().contains(filter)) continue;
+            Result r = measure(c, warmupMs, measureMs, iterations);
+            results.add(r);
+            System.out.println(String.format(Locale.ROOT, "%-70s %8d %14.1f %12.1f %14.1f",
+                                             r.name, r.size, r.nsPerOp, r.nsStdDev,
+                                             r.bytesPerOp));
+        }
+
+        if (output != null) {
+            try (PrintWriter out = new PrintWriter(output)) {
+                out.println(HEADER);
+                for (Result r : results) out.println(toCsv(r));
+            }
+        }
+        if (sink == 42) System.out.println();
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * Title: Branch and Bound Knapsack
+ * Date: 10/18/2026
+ *
+ * Solve the same 0-1 knapsack problem as Knapsack, picking the algorithm
+ * that suits the input, and optionally giving up after a time budget with
+ * the best answer found so far.
+ *
+ * eg.
+ * items = {(w:1, v:6), (w:2, v:10), (w:3, v:12)}
+ * maxWeight = 5
+ * solve(items, maxWeight) = 22, items {1, 2}
+ *
+ * The dp solutions take O(n * W) time no matter what the items look like.
+ * When W is large but the items are "easy", branch and bound usually does
+ * much better. It is the same include/exclude recursion as
+ * Knapsack.bruteForceKnapsack, but before exploring a branch we compute an
+ * upper bound on anything it could reach, and skip it if that can't beat the
+ * best solution found so far (the incumbent).
+ *
+ * The bound comes from the fractional knapsack, where we may take part of an
+ * item. Its optimum is to take items in decreasing order of value per unit
+ * of weight and then a fraction of the first one that doesn't fit. We sort
+ * the items that way once and keep prefix sums of weight and value, so the
+ * bound for a branch is a binary search rather than a loop over the items.
+ * Searching in the same order also means the first solutions we find are
+ * good ones, which makes the bound prune early.
+ *
+ * The top levels of the search tree are split into ForkJoin tasks, so idle
+ * workers steal whole subtrees. All tasks share the incumbent value through
+ * an AtomicLong, so a good solution found by one worker immediately helps the
+ * others prune.
+ *
+ * Branch and bound can still take exponential time on hard inputs (eg. when
+ * value is close to proportional to weight, so the bound is weak), while the
+ * cost of the dp is known up front. So when the dp table is small enough,
+ * solve() first runs branch and bound with a limit on the number of nodes it
+ * may explore, proportional to the size of the table, and only falls back to
+ * the dp (via KnapsackSelection) if it hits the limit. Bigger tables always
+ * use branch and bound. The time budget covers both phases except the dp
+ * itself.
+ *
+ * Execution: javac BranchAndBoundKnapsack.java && java BranchAndBoundKnapsack
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BranchAndBoundKnapsack {
+    public enum Method {
+        DYNAMIC_PROGRAMMING,
+        BRANCH_AND_BOUND
+    }
+
+    // solve() uses dp when items * (W + 1) is at most this
+    public static final long DEFAULT_DP_CELLS = 1L << 26;
+    // Levels of the search tree that are split into separate tasks
+    private static final int SPLIT_DEPTH = 12;
+    // Nodes explored between checks of the clock and node limit
+    private static final int CHECK_INTERVAL = 1 << 12;
+    // Roughly how many dp cells cost as much as one branch and bound node
+    private static final int CELLS_PER_NODE = 16;
+    // Stages of a frame in Task.explore: not visited yet, include branch
+    // pushed, exclude branch pushed
+    private static final byte ENTER = 0;
+    private static final byte INCLUDED = 1;
+    private static final byte EXCLUDED = 2;
+
+    // Answer from one of the solve methods
+    public static class Result {
+        private long value;
+        private int[] items;
+        private boolean optimal;
+        private Method method;
+
+        private Result(long value, int[] items, boolean optimal, Method method) {
+            this.value = value;
+            this.items = items;
+            this.optimal = optimal;
+            this.method = method;
+        }
+
+        // Total value of the chosen items
+        public long value() {
+            return value;
+        }
+
+        // Indices of the chosen items, in increasing order
+        public int[] items() {
+            return items.clone();
+        }
+
+        // False if the time budget ran out before the search finished
+        public boolean optimal() {
+            return optimal;
+        }
+
+        public Method method() {
+            return method;
+        }
+    }
+
+    private ForkJoinPool pool;
+    private long dpCells;
+
+    // Use the common pool and default dp threshold
+    public BranchAndBoundKnapsack() {
+        this(ForkJoinPool.commonPool(), DEFAULT_DP_CELLS);
+    }
+
+    public BranchAndBoundKnapsack(ForkJoinPool pool, long dpCells) {
+        this.pool = pool;
+        this.dpCells = dpCells;
+    }
+
+    // Solve without a time budget
+    public Result solve(Knapsack.Item[] items, int W) {
+        return solve(items, W, 0);
+    }
+
+    // Pick dp or branch and bound. budgetNanos <= 0 means no budget
+    public Result solve(Knapsack.Item[] items, int W, long budgetNanos) {
+        validate(items, W);
+        long cells = (long) items.length * (W + 1);
+        if (cells > dpCells) return branchAndBound(items, W, budgetNanos);
+
+        Search search = new Search(items, W, budgetNanos, cells / CELLS_PER_NODE);
+        pool.invoke(new Task(search, 0, W, 0, new boolean[search.n], 0));
+        if (!search.abandoned || search.expired) return search.result();
+        KnapsackSelection selection = KnapsackSelection.compute(items, W);
+        return new Result(selection.value(), selection.items(), true, Method.DYNAMIC_PROGRAMMING);
+    }
+
+    // Always use branch and bound. budgetNanos <= 0 means no budget
+    public Result branchAndBound(Knapsack.Item[] items, int W, long budgetNanos) {
+        validate(items, W);
+        Search search = new Search(items, W, budgetNanos, Long.MAX_VALUE);
+        pool.invoke(new Task(search, 0, W, 0, new boolean[search.n], 0));
+        return search.result();
+    }
+
+    private static void validate(Knapsack.Item[] items, int W) {
+        if (W < 0) throw new IllegalArgumentException("W must be non-negative");
+        for (Knapsack.Item item : items) {
+            if (item.weight < 0) throw new IllegalArgumentException("weights must be non-negative");
+        }
+    }
+
+    // State shared by every task of one search
+    private static class Search {
+        private int n;
+        // Items sorted by decreasing value per unit of weight, and their
+        // indices in the original array
+        private int[] weights;
+        private int[] values;
+        private int[] original;
+        // prefixWeight[i] is the total weight of the first i sorted items
+        private long[] prefixWeight;
+        private long[] prefixValue;
+
+        private AtomicLong best = new AtomicLong();
+        private boolean[] bestTaken;
+        private long deadline;
+        private boolean hasDeadline;
+        private long nodeLimit;
+        private AtomicLong nodes = new AtomicLong();
+        // Set when the time budget or node limit runs out. Either one stops
+        // every task
+        private volatile boolean expired;
+        private volatile boolean abandoned;
+
+        private Search(Knapsack.Item[] items, int W, long budgetNanos, long nodeLimit) {
+            // Items that are too heavy or worth nothing can never help
+            Integer[] order = new Integer[items.length];
+            int count = 0;
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].weight <= W && items[i].value > 0) order[count++] = i;
+            }
+            order = Arrays.copyOf(order, count);
+            // a before b if a.value / a.weight > b.value / b.weight, without
+            // dividing. Zero weight items compare as infinitely dense
+            Arrays.sort(order, (a, b) -> Long.compare((long) items[b].value * items[a].weight,
+                                                      (long) items[a].value * items[b].weight));
+
+            this.n = count;
+            this.weights = new int[n];
+            this.values = new int[n];
+            this.original = new int[n];
+            this.prefixWeight = new long[n + 1];
+            this.prefixValue = new long[n + 1];
+            for (int i = 0; i < n; i++) {
+                original[i] = order[i];
+                weights[i] = items[order[i]].weight;
+                values[i] = items[order[i]].value;
+                prefixWeight[i + 1] = prefixWeight[i] + weights[i];
+                prefixValue[i + 1] = prefixValue[i] + values[i];
+            }
+            this.hasDeadline = budgetNanos > 0;
+            this.deadline = System.nanoTime() + budgetNanos;
+            this.nodeLimit = nodeLimit;
+
+            // Start from the greedy solution so the bound prunes right away
+            boolean[] taken = new boolean[n];
+            long capacity = W;
+            long value = 0;
+            for (int i = 0; i < n; i++) {
+                if (weights[i] <= capacity) {
+                    taken[i] = true;
+                    capacity -= weights[i];
+                    value += values[i];
+                }
+            }
+            this.best.set(value);
+            this.bestTaken = taken;
+        }
+
+        // Best value reachable from item i on with the given capacity if we
+        // may take a fraction of an item
+        private long bound(int i, long capacity, long value) {
+            // Find the first item k that doesn't fit when taking i..k in order
+            long limit = prefixWeight[i] + capacity;
+            int lo = i;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prefixWeight[mid + 1] <= limit) lo = mid + 1;
+                else hi = mid;
+            }
+            value += prefixValue[lo] - prefixValue[i];
+            if (lo < n) value += values[lo] * (limit - prefixWeight[lo]) / weights[lo];
+            return value;
+        }
+
+        // Record a new incumbent if value beats it
+        private void offer(long value, boolean[] taken) {
+            if (value <= best.get()) return;
+            synchronized (this) {
+                if (value > best.get()) {
+                    bestTaken = taken.clone();
+                    best.set(value);
+                }
+            }
+        }
+
+        // Count explored nodes, check the clock and return true if the
+        // search should stop
+        private boolean checkLimits(int explored) {
+            if (nodes.addAndGet(explored) > nodeLimit) abandoned = true;
+            if (hasDeadline && System.nanoTime() - deadline > 0) expired = true;
+            return stopped();
+        }
+
+        private boolean stopped() {
+            return expired || abandoned;
+        }
+
+        private synchronized Result result() {
+            int count = 0;
+            for (boolean t : bestTaken) if (t) count++;
+            int[] items = new int[count];
+            count = 0;
+            for (int i = 0; i < n; i++) {
+                if (bestTaken[i]) items[count++] = original[i];
+            }
+            Arrays.sort(items);
+            return new Result(best.get(), items, !stopped(), Method.BRANCH_AND_BOUND);
+        }
+    }
+
+    // Explores every selection of items i.. that extends taken[0..i)
+    private static class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private Search search;
+        private int i;
+        private long capacity;
+        private long value;
+        private boolean[] taken;
+        private int depth;
+        private int nodes;
+
+        private Task(Search search, int i, long capacity, long value, boolean[] taken, int depth) {
+            this.search = search;
+            this.i = i;
+            this.capacity = capacity;
+            this.value = value;
+            this.taken = taken;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < SPLIT_DEPTH && i < search.n) {
+                if (search.checkLimits(1)) return;
+                if (search.bound(i, capacity, value) <= search.best.get()) return;
+                if (search.weights[i] > capacity) {
+                    new Task(search, i + 1, capacity, value, taken, depth + 1).compute();
+                    return;
+                }
+                boolean[] include = taken.clone();
+                include[i] = true;
+                search.offer(value + search.values[i], include);
+                invokeAll(new Task(search, i + 1, capacity - search.weights[i],
+                                   value + search.values[i], include, depth + 1),
+                          new Task(search, i + 1, capacity, value, taken, depth + 1));
+                return;
+            }
+            explore(i, capacity, value);
+        }
+
+        // Depth first search with an explicit stack, like IterativeMemo, so
+        // that thousands of items can't overflow the call stack. The frame at
+        // depth d decides item start + d. Its stage says which branches it
+        // has pushed so far
+        private void explore(int start, long startCapacity, long startValue) {
+            long[] capacities = new long[64];
+            long[] values = new long[64];
+            byte[] stages = new byte[64];
+            int top = 0;
+            capacities[0] = startCapacity;
+            values[0] = startValue;
+            stages[0] = ENTER;
+            while (top >= 0) {
+                int i = start + top;
+                long capacity = capacities[top];
+                long value = values[top];
+                if (stages[top] == EXCLUDED) {
+                    top--;
+                    continue;
+                }
+                if (stages[top] == INCLUDED) {
+                    taken[i] = false;
+                } else {
+                    if (i == search.n) {
+                        top--;
+                        continue;
+                    }
+                    if (++nodes == CHECK_INTERVAL) {
+                        search.checkLimits(nodes);
+                        nodes = 0;
+                    }
+                    if (search.stopped()) {
+                        Arrays.fill(taken, start, search.n, false);
+                        return;
+                    }
+                    if (search.bound(i, capacity, value) <= search.best.get()) {
+                        top--;
+                        continue;
+                    }
+                }
+
+                if (top + 1 == stages.length) {
+                    capacities = Arrays.copyOf(capacities, 2 * stages.length);
+                    values = Arrays.copyOf(values, 2 * stages.length);
+                    stages = Arrays.copyOf(stages, 2 * stages.length);
+                }
+                // Include first: in density order that's usually the better
+                // branch
+                if (stages[top] == ENTER && search.weights[i] <= capacity) {
+                    taken[i] = true;
+                    long include = value + search.values[i];
+                    search.offer(include, taken);
+                    stages[top] = INCLUDED;
+                    capacities[top + 1] = capacity - search.weights[i];
+                    values[top + 1] = include;
+                } else {
+                    stages[top] = EXCLUDED;
+                    capacities[top + 1] = capacity;
+                    values[top + 1] = value;
+                }
+                stages[++top] = ENTER;
+            }
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase(new Knapsack.Item[]{}, 0, 0)).run();
+        (new TestCase(new Knapsack.Item[]{
+            new Knapsack.Item(1, 6), new Knapsack.Item(2, 10), new Knapsack.Item(3, 12)
+        }, 5, 22)).run();
+        Knapsack.Item[] items = {
+            new Knapsack.Item(4, 5), new Knapsack.Item(1, 8), new Knapsack.Item(2, 4),
+            new Knapsack.Item(3, 0), new Knapsack.Item(2, 5), new Knapsack.Item(2, 3)
+        };
+        (new TestCase(items, 3, 13)).run();
+        (new TestCase(items, 8, 20)).run();
+        (new TestCase(new Knapsack.Item[]{
+            new Knapsack.Item(0, 7), new Knapsack.Item(10, 100), new Knapsack.Item(3, 4)
+        }, 5, 11)).run();
+
+        // Against Knapsack on random items, including strongly correlated
+        // ones (value = weight + 10) where the bound is weak
+        Random r = new Random(0);
+        for (int t = 0; t < 60; t++) {
+            int n = r.nextInt(60);
+            int W = r.nextInt(2000);
+            Knapsack.Item[] random = new Knapsack.Item[n];
+            for (int i = 0; i < n; i++) {
+                int w = 1 + r.nextInt(100);
+                random[i] = new Knapsack.Item(w, t % 2 == 0 ? r.nextInt(100) : w + 10);
+            }
+            (new TestCase(random, W, Knapsack.bottomUpKnapsackSpaceOptimized(random, W))).run();
+        }
+
+        // A budget that has already run out still returns a valid selection
+        Knapsack.Item[] hard = new Knapsack.Item[100];
+        for (int i = 0; i < hard.length; i++) {
+            int w = 100_000 + r.nextInt(100_000);
+            hard[i] = new Knapsack.Item(w, w + 1000);
+        }
+        int W = 2_500_000;
+        Result result = new BranchAndBoundKnapsack().branchAndBound(hard, W, 1);
+        long weight = 0;
+        long value = 0;
+        for (int i : result.items()) {
+            weight += hard[i].weight;
+            value += hard[i].value;
+        }
+        assert weight <= W && value == result.value():
+            "branchAndBound returned an invalid selection after the budget ran out";
+        int optimum = Knapsack.bottomUpKnapsackSpaceOptimized(hard, W);
+        assert result.value() <= optimum : "branchAndBound returned more than the optimum";
+
+        // Hard enough that branch and bound hits the node limit, so solve()
+        // falls back to the dp
+        result = new BranchAndBoundKnapsack(ForkJoinPool.commonPool(), Long.MAX_VALUE).solve(hard, W);
+        assert result.method() == Method.DYNAMIC_PROGRAMMING && result.value() == optimum:
+            "solve failed to fall back to dp";
+
+        // Too many cells for dp, so solve() picks branch and bound, with a
+        // search far deeper than the call stack could go
+        Knapsack.Item[] many = new Knapsack.Item[20000];
+        long total = 0;
+        for (int i = 0; i < many.length; i++) {
+            int w = 1 + r.nextInt(1000);
+            many[i] = new Knapsack.Item(w, w + r.nextInt(50));
+            total += w;
+        }
+        W = (int) (total / 2);
+        result = new BranchAndBoundKnapsack().solve(many, W);
+        weight = 0;
+        value = 0;
+        for (int i : result.items()) {
+            weight += many[i].weight;
+            value += many[i].value;
+        }
+        assert result.method() == Method.BRANCH_AND_BOUND && result.optimal():
+            "solve failed to finish branch and bound on " + many.length + " items";
+        assert weight <= W && value == result.value() : "solve returned an invalid selection for many items";
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private Knapsack.Item[] items;
+        private int W;
+        private long output;
+
+        private TestCase(Knapsack.Item[] items, int W, long output) {
+            this.items = items;
+            this.W = W;
+            this.output = output;
+        }
+
+        private void run() {
+            BranchAndBoundKnapsack knapsack = new BranchAndBoundKnapsack();
+            // Small tables can go either way depending on the node limit
+            check(knapsack.solve(items, W), null, "solve");
+            check(knapsack.branchAndBound(items, W, 0), Method.BRANCH_AND_BOUND, "branchAndBound");
+            // A negative threshold never picks dp
+            check(new BranchAndBoundKnapsack(ForkJoinPool.commonPool(), -1).solve(items, W),
+                  Method.BRANCH_AND_BOUND, "solve");
+        }
+
+        private void check(Result result, Method method, String name) {
+            long weight = 0;
+            long value = 0;
+            for (int i : result.items()) {
+                weight += items[i].weight;
+                value += items[i].value;
+            }
+            assert (method == null || result.method() == method) && result.optimal():
+                name + " used the wrong method for W = " + W;
+            assert result.value() == output && value == output && weight <= W:
+                name + " failed for W = " + W + ", got " + result.value();
+        }
+    }
+}
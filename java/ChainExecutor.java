@@ -0,0 +1,393 @@
+/*
+ * Title: Chain Executor
+ * Date: 10/18/2026
+ *
+ * Actually multiply a chain of matrices, in the order chosen by
+ * ParallelMatrixChain, and compare that with multiplying from left to right.
+ *
+ * eg.
+ * A = [500 x 10], B = [10 x 500], C = [500 x 10]
+ * executeLeftToRight({A, B, C}) computes (A x B) x C,
+ *   500 * 10 * 500 + 500 * 500 * 10 = 5000000 multiply-adds
+ * execute({A, B, C}) computes A x (B x C),
+ *   10 * 500 * 10 + 500 * 10 * 10 = 100000 multiply-adds
+ * and both return the same [500 x 10] matrix
+ *
+ * DenseMatrix is a MatrixChainMultiplication.Matrix that also holds its
+ * values, row by row, either in a double[] or off the Java heap in a direct
+ * buffer. So the same objects can be passed to the planner and then
+ * multiplied.
+ *
+ * A single product C = A x B is cut into tiles of C, which are computed in
+ * parallel on a ForkJoinPool. Each tile goes through the shared dimension in
+ * blocks. For every block it copies the part of B it needs into a small
+ * contiguous panel, then adds a[i][k] times row k of the panel to row i of
+ * the tile. The innermost loop runs along a row of the panel and a row of the
+ * tile, so it's sequential in memory and the JIT can vectorize it, and the
+ * panel is small enough to stay in cache while every row of A in the tile
+ * uses it. Copying also means the inner loops never touch the off-heap
+ * buffers directly.
+ *
+ * The plan is a tree: A(i..j) = A(i..k) x A(k + 1..j). The two sides of
+ * every split don't depend on each other, so they're computed as separate
+ * ForkJoin tasks too, and each product inside them is split into tiles.
+ *
+ * Execution: javac ChainExecutor.java && java ChainExecutor
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+public class ChainExecutor {
+    // Tile and block sizes. A panel is DEPTH_BLOCK x COL_BLOCK doubles, 512KB
+    private static final int ROW_BLOCK = 64;
+    private static final int COL_BLOCK = 256;
+    private static final int DEPTH_BLOCK = 256;
+    // Products with fewer multiply-adds than this aren't split into tasks
+    private static final long GRAIN = 1L << 20;
+
+    // A matrix with its values, stored row by row
+    public static class DenseMatrix extends MatrixChainMultiplication.Matrix {
+        // Exactly one of these is set
+        private double[] array;
+        private DoubleBuffer buffer;
+
+        // A zero matrix on the heap
+        public DenseMatrix(int rows, int cols) {
+            this(rows, cols, new double[checkedSize(rows, cols)]);
+        }
+
+        // Wrap values given row by row. The array is not copied
+        public DenseMatrix(int rows, int cols, double[] values) {
+            super(rows, cols);
+            if (values.length != checkedSize(rows, cols)) {
+                throw new IllegalArgumentException("expected " + rows + " x " + cols + " values");
+            }
+            this.array = values;
+        }
+
+        private DenseMatrix(int rows, int cols, DoubleBuffer buffer) {
+            super(rows, cols);
+            this.buffer = buffer;
+        }
+
+        // A zero matrix stored outside the Java heap
+        public static DenseMatrix offHeap(int rows, int cols) {
+            int size = checkedSize(rows, cols);
+            if (size > Integer.MAX_VALUE / Double.BYTES) throw new IllegalArgumentException("matrix too large");
+            ByteBuffer bytes = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder());
+            return new DenseMatrix(rows, cols, bytes.asDoubleBuffer());
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public int cols() {
+            return cols;
+        }
+
+        public boolean isOffHeap() {
+            return buffer != null;
+        }
+
+        public double get(int r, int c) {
+            int i = index(r, c);
+            return array != null ? array[i] : buffer.get(i);
+        }
+
+        public void set(int r, int c, double value) {
+            int i = index(r, c);
+            if (array != null) array[i] = value;
+            else buffer.put(i, value);
+        }
+
+        private int index(int r, int c) {
+            if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                throw new IndexOutOfBoundsException("(" + r + ", " + c + ")");
+            }
+            return r * cols + c;
+        }
+
+        // Copy length values of row r starting at column c into dst
+        private void read(int r, int c, double[] dst, int offset, int length) {
+            if (array != null) System.arraycopy(array, r * cols + c, dst, offset, length);
+            else buffer.get(r * cols + c, dst, offset, length);
+        }
+
+        // Copy length values from src into row r starting at column c
+        private void write(int r, int c, double[] src, int offset, int length) {
+            if (array != null) System.arraycopy(src, offset, array, r * cols + c, length);
+            else buffer.put(r * cols + c, src, offset, length);
+        }
+
+        private static int checkedSize(int rows, int cols) {
+            if (rows < 1 || cols < 1) throw new IllegalArgumentException("dimensions must be positive");
+            if ((long) rows * cols > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("matrix too large");
+            return rows * cols;
+        }
+    }
+
+    private ForkJoinPool pool;
+    private ParallelMatrixChain planner;
+    private boolean offHeapResults;
+
+    // Use the common pool and keep results on the heap
+    public ChainExecutor() {
+        this(ForkJoinPool.commonPool(), false);
+    }
+
+    // offHeapResults puts every intermediate and final product off the heap
+    public ChainExecutor(ForkJoinPool pool, boolean offHeapResults) {
+        this.pool = pool;
+        this.planner = new ParallelMatrixChain(pool, ParallelMatrixChain.DEFAULT_GRAIN);
+        this.offHeapResults = offHeapResults;
+    }
+
+    // a x b
+    public DenseMatrix multiply(DenseMatrix a, DenseMatrix b) {
+        if (a.cols != b.rows) throw new IllegalArgumentException("a has " + a.cols + " cols but b has " + b.rows + " rows");
+        DenseMatrix c = offHeapResults ? DenseMatrix.offHeap(a.rows, b.cols) : new DenseMatrix(a.rows, b.cols);
+        int rowTiles = (a.rows + ROW_BLOCK - 1) / ROW_BLOCK;
+        int colTiles = (b.cols + COL_BLOCK - 1) / COL_BLOCK;
+        run(new Tiles(a, b, c, colTiles, 0, rowTiles * colTiles));
+        return c;
+    }
+
+    // The product of the chain, multiplied in the cheapest order. A chain of
+    // one matrix returns that matrix
+    public DenseMatrix execute(DenseMatrix[] chain) {
+        return execute(chain, planner.solve(chain));
+    }
+
+    // The product of the chain, multiplied in the order given by plan
+    public DenseMatrix execute(DenseMatrix[] chain, ParallelMatrixChain.Plan plan) {
+        int[] dims = ParallelMatrixChain.dims(chain);
+        if (!Arrays.equals(dims, plan.dims())) throw new IllegalArgumentException("plan is for a different chain");
+        return run(new Product(chain, plan, 0, chain.length - 1));
+    }
+
+    // The product of the chain, multiplied from left to right
+    public DenseMatrix executeLeftToRight(DenseMatrix[] chain) {
+        ParallelMatrixChain.dims(chain);
+        DenseMatrix result = chain[0];
+        for (int i = 1; i < chain.length; i++) result = multiply(result, chain[i]);
+        return result;
+    }
+
+    // Run on the pool, or on this thread if it's already one of this pool's
+    // workers. A worker of some other pool, eg. the common pool under a
+    // parallel stream, still hands the task to this pool
+    private <T> T run(ForkJoinTask<T> task) {
+        return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+    }
+
+    // Multiply out chain[i..j] by splitting where the plan says
+    private class Product extends RecursiveTask<DenseMatrix> {
+        private static final long serialVersionUID = 1L;
+
+        private DenseMatrix[] chain;
+        private ParallelMatrixChain.Plan plan;
+        private int i;
+        private int j;
+
+        private Product(DenseMatrix[] chain, ParallelMatrixChain.Plan plan, int i, int j) {
+            this.chain = chain;
+            this.plan = plan;
+            this.i = i;
+            this.j = j;
+        }
+
+        protected DenseMatrix compute() {
+            if (i == j) return chain[i];
+            int k = plan.split(i, j);
+            Product left = new Product(chain, plan, i, k);
+            left.fork();
+            DenseMatrix right = new Product(chain, plan, k + 1, j).compute();
+            return multiply(left.join(), right);
+        }
+    }
+
+    // Tiles [from, to) of c = a x b, numbered row by row
+    private static class Tiles extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private DenseMatrix a;
+        private DenseMatrix b;
+        private DenseMatrix c;
+        private int colTiles;
+        private int from;
+        private int to;
+
+        private Tiles(DenseMatrix a, DenseMatrix b, DenseMatrix c, int colTiles, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.colTiles = colTiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            long work = (long) (to - from) * ROW_BLOCK * COL_BLOCK * a.cols;
+            if (to - from > 1 && work > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Tiles(a, b, c, colTiles, from, mid), new Tiles(a, b, c, colTiles, mid, to));
+                return;
+            }
+            int width = Math.min(COL_BLOCK, c.cols);
+            int height = Math.min(ROW_BLOCK, c.rows);
+            int depth = Math.min(DEPTH_BLOCK, a.cols);
+            double[] panel = new double[depth * width];
+            double[] row = new double[depth];
+            double[] tile = new double[height * width];
+            for (int t = from; t < to; t++) {
+                int i0 = (t / colTiles) * ROW_BLOCK;
+                int j0 = (t % colTiles) * COL_BLOCK;
+                multiplyTile(a, b, c, i0, Math.min(c.rows, i0 + ROW_BLOCK), j0, Math.min(c.cols, j0 + COL_BLOCK),
+                             panel, row, tile);
+            }
+        }
+    }
+
+    // c[i0..i1)[j0..j1) = a[i0..i1) x b[..][j0..j1)
+    private static void multiplyTile(DenseMatrix a, DenseMatrix b, DenseMatrix c, int i0, int i1, int j0, int j1,
+                                     double[] panel, double[] row, double[] tile) {
+        int width = j1 - j0;
+        Arrays.fill(tile, 0, (i1 - i0) * width, 0);
+        for (int k0 = 0; k0 < a.cols; k0 += DEPTH_BLOCK) {
+            int depth = Math.min(DEPTH_BLOCK, a.cols - k0);
+            // Rows k0..k0 + depth of b, only the columns of this tile
+            for (int k = 0; k < depth; k++) b.read(k0 + k, j0, panel, k * width, width);
+            for (int i = i0; i < i1; i++) {
+                a.read(i, k0, row, 0, depth);
+                int out = (i - i0) * width;
+                for (int k = 0; k < depth; k++) {
+                    double x = row[k];
+                    int in = k * width;
+                    for (int j = 0; j < width; j++) tile[out + j] += x * panel[in + j];
+                }
+            }
+        }
+        for (int i = i0; i < i1; i++) c.write(i, j0, tile, (i - i0) * width, width);
+    }
+
+    // Textbook triple loop, to check against
+    private static double[][] multiplyNaive(double[][] a, double[][] b) {
+        double[][] c = new double[a.length][b[0].length];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b[0].length; j++) {
+                double sum = 0;
+                for (int k = 0; k < b.length; k++) sum += a[i][k] * b[k][j];
+                c[i][j] = sum;
+            }
+        }
+        return c;
+    }
+
+    private static DenseMatrix random(int rows, int cols, boolean offHeap, Random r) {
+        DenseMatrix m = offHeap ? DenseMatrix.offHeap(rows, cols) : new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) m.set(i, j, r.nextDouble() - 0.5);
+        }
+        return m;
+    }
+
+    private static double[][] toArray(DenseMatrix m) {
+        double[][] values = new double[m.rows][m.cols];
+        for (int i = 0; i < m.rows; i++) {
+            for (int j = 0; j < m.cols; j++) values[i][j] = m.get(i, j);
+        }
+        return values;
+    }
+
+    private static boolean close(DenseMatrix m, double[][] expected) {
+        if (m.rows != expected.length || m.cols != expected[0].length) return false;
+        for (int i = 0; i < m.rows; i++) {
+            for (int j = 0; j < m.cols; j++) {
+                if (Math.abs(m.get(i, j) - expected[i][j]) > 1e-9 * (1 + Math.abs(expected[i][j]))) return false;
+            }
+        }
+        return true;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        ChainExecutor executor = new ChainExecutor();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ChainExecutor offHeap = new ChainExecutor(single, true);
+
+        // [2 x 3] x [3 x 2]
+        DenseMatrix a = new DenseMatrix(2, 3, new double[]{1, 2, 3, 4, 5, 6});
+        DenseMatrix b = new DenseMatrix(3, 2, new double[]{7, 8, 9, 10, 11, 12});
+        assert close(executor.multiply(a, b), new double[][]{{58, 64}, {139, 154}}) : "multiply failed";
+        assert close(offHeap.multiply(a, b), new double[][]{{58, 64}, {139, 154}}) : "off-heap multiply failed";
+        assert executor.execute(new DenseMatrix[]{a}) == a : "execute failed for one matrix";
+
+        // Products with edges that don't line up with the tiles, from heap
+        // and off-heap inputs
+        Random r = new Random(0);
+        for (int t = 0; t < 10; t++) {
+            int m = 1 + r.nextInt(150);
+            int k = 1 + r.nextInt(600);
+            int n = 1 + r.nextInt(600);
+            DenseMatrix x = random(m, k, r.nextBoolean(), r);
+            DenseMatrix y = random(k, n, r.nextBoolean(), r);
+            double[][] expected = multiplyNaive(toArray(x), toArray(y));
+            assert close(executor.multiply(x, y), expected) : "multiply failed for " + x + " x " + y;
+            assert close(offHeap.multiply(x, y), expected) : "off-heap multiply failed for " + x + " x " + y;
+        }
+
+        // Chains in the planned order and from left to right agree with the
+        // triple loop
+        for (int t = 0; t < 10; t++) {
+            int length = 1 + r.nextInt(6);
+            int[] dims = new int[length + 1];
+            for (int i = 0; i <= length; i++) dims[i] = 1 + r.nextInt(120);
+            DenseMatrix[] chain = new DenseMatrix[length];
+            double[][] expected = null;
+            for (int i = 0; i < length; i++) {
+                chain[i] = random(dims[i], dims[i + 1], r.nextBoolean(), r);
+                expected = i == 0 ? toArray(chain[i]) : multiplyNaive(expected, toArray(chain[i]));
+            }
+            assert close(executor.execute(chain), expected) : "execute failed for " + Arrays.toString(chain);
+            assert close(offHeap.execute(chain), expected) : "off-heap execute failed for " + Arrays.toString(chain);
+            assert close(executor.executeLeftToRight(chain), expected):
+                "executeLeftToRight failed for " + Arrays.toString(chain);
+        }
+
+        // Called from a common pool worker, an executor with its own pool
+        // runs the work on its pool. Called from one of its own workers, it
+        // runs it in place on that thread
+        Callable<ForkJoinPool> probe = ForkJoinTask::getPool;
+        ForkJoinPool ran = ForkJoinPool.commonPool().submit(() -> offHeap.run(ForkJoinTask.adapt(probe))).join();
+        assert ran == single : "run used the caller's pool instead of its own";
+        boolean inPlace = single.submit(() -> {
+            Thread caller = Thread.currentThread();
+            return offHeap.run(ForkJoinTask.adapt(() -> Thread.currentThread() == caller));
+        }).join();
+        assert inPlace : "run failed to run in place on its own pool";
+        DenseMatrix x = random(70, 90, false, r);
+        DenseMatrix y = random(90, 300, true, r);
+        double[][] expected = multiplyNaive(toArray(x), toArray(y));
+        assert IntStream.range(0, 8).parallel().allMatch(i -> close(offHeap.multiply(x, y), expected)):
+            "multiply failed from another pool";
+        single.shutdown();
+
+        try {
+            executor.multiply(a, a);
+            assert false : "multiply failed to reject mismatched matrices";
+        } catch (IllegalArgumentException e) {
+        }
+        System.out.println("Passed all test cases");
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Title: Convolution Target Sum
+ * Date: 10/18/2026
+ *
+ * Count the number of ways to add and subtract the values in nums to get T,
+ * like TargetSum, for thousands of small values, modulo the prime
+ * 998244353.
+ *
+ * eg.
+ * nums = {1, 2, 3, 4}
+ * T = 0
+ * count(nums, T) = 2
+ *
+ * As in TargetSumCount we count the subsets of |nums| that add up to
+ * S = (total + T) / 2 instead. That number is the coefficient of x^S in the
+ * polynomial (1 + x^a_1)(1 + x^a_2)...(1 + x^a_n), since each factor either
+ * adds a_i or doesn't. The row-by-row dynamic programming solution multiplies
+ * in one factor at a time, which is n passes over up to S + 1 terms.
+ *
+ * Instead we multiply the factors in a balanced tree: the product of a range
+ * of values is the product of its left half times the product of its right
+ * half. Two products of about the same length can be multiplied with the
+ * number theoretic transform (a fast Fourier transform over the integers
+ * modulo a prime) in O(S log S) rather than O(S^2), and there are only
+ * log n levels. Because everything is integers modulo the prime there's no
+ * rounding error, the answer is exact modulo 998244353. We never need terms
+ * past x^S, so every product is cut off there.
+ *
+ * The two halves of every range are independent, so they're computed in
+ * parallel on a ForkJoinPool. Small ranges, where a factor only touches a few
+ * terms, are faster with the row-by-row update, so the leaves of the tree
+ * use that.
+ *
+ * Execution: javac ConvolutionTargetSum.java && java ConvolutionTargetSum
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ConvolutionTargetSum {
+    // 119 * 2^23 + 1, so it has roots of unity for transforms up to 2^23
+    public static final long MOD = 998244353;
+    private static final long ROOT = 3;
+    private static final int MAX_TRANSFORM = 1 << 23;
+
+    // Ranges with at most this many values use the row-by-row update
+    private static final int LEAF_SIZE = 32;
+    // Products where one side is at most this long are multiplied directly
+    private static final int DIRECT_LENGTH = 64;
+
+    private ForkJoinPool pool;
+
+    // Use the common pool
+    public ConvolutionTargetSum() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ConvolutionTargetSum(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Number of ways to reach T, modulo MOD
+    public long count(int[] nums, int T) {
+        long target = TargetSumCount.subsetTarget(nums, T);
+        if (target < 0) return 0;
+        // Products are cut at S + 1 terms, so their product has fewer than
+        // 2 * (S + 1) terms
+        if (2 * (target + 1) > MAX_TRANSFORM) throw new IllegalArgumentException("sums too large");
+        int S = (int) target;
+
+        // Zeros double the count and values past S can never be added, so
+        // neither goes into the tree
+        int[] values = new int[nums.length];
+        int length = 0;
+        int zeros = 0;
+        for (int num : nums) {
+            long a = Math.abs((long) num);
+            if (a == 0) zeros++;
+            else if (a <= S) values[length++] = (int) a;
+        }
+
+        long[] product = pool.invoke(new Product(values, 0, length, S));
+        long count = S < product.length ? product[S] : 0;
+        return count * pow(2, zeros) % MOD;
+    }
+
+    // Product of (1 + x^a) for a in values[lo..hi), cut off after x^limit
+    private static class Product extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private int[] values;
+        private int lo;
+        private int hi;
+        private int limit;
+
+        private Product(int[] values, int lo, int hi, int limit) {
+            this.values = values;
+            this.lo = lo;
+            this.hi = hi;
+            this.limit = limit;
+        }
+
+        protected long[] compute() {
+            if (hi - lo <= LEAF_SIZE) return leaf();
+            int mid = (lo + hi) >>> 1;
+            Product left = new Product(values, lo, mid, limit);
+            left.fork();
+            long[] right = new Product(values, mid, hi, limit).compute();
+            return multiply(left.join(), right, limit + 1);
+        }
+
+        // Multiply in one factor at a time, in place from right to left
+        private long[] leaf() {
+            long sum = 0;
+            for (int i = lo; i < hi; i++) sum += values[i];
+            int degree = (int) Math.min(limit, sum);
+            long[] poly = new long[degree + 1];
+            poly[0] = 1;
+            int reach = 0;
+            for (int i = lo; i < hi; i++) {
+                int a = values[i];
+                reach = Math.min(degree, reach + a);
+                for (int j = reach; j >= a; j--) {
+                    long c = poly[j] + poly[j - a];
+                    poly[j] = c >= MOD ? c - MOD : c;
+                }
+            }
+            return poly;
+        }
+    }
+
+    // a * b, keeping only the first limit terms
+    static long[] multiply(long[] a, long[] b, int limit) {
+        int length = Math.min(limit, a.length + b.length - 1);
+        if (Math.min(a.length, b.length) <= DIRECT_LENGTH) {
+            long[] result = new long[length];
+            for (int i = 0; i < a.length && i < length; i++) {
+                if (a[i] == 0) continue;
+                for (int j = 0; j < b.length && i + j < length; j++) {
+                    result[i + j] = (result[i + j] + a[i] * b[j]) % MOD;
+                }
+            }
+            return result;
+        }
+
+        // The transforms are cyclic, so they have to hold the whole product
+        // or the high terms would wrap around onto the low ones
+        int size = Integer.highestOneBit(a.length + b.length - 1);
+        if (size < a.length + b.length - 1) size *= 2;
+        long[] fa = Arrays.copyOf(a, size);
+        long[] fb = Arrays.copyOf(b, size);
+        transform(fa, false);
+        transform(fb, false);
+        for (int i = 0; i < size; i++) fa[i] = fa[i] * fb[i] % MOD;
+        transform(fa, true);
+        return Arrays.copyOf(fa, length);
+    }
+
+    // In-place number theoretic transform. a.length must be a power of two
+    static void transform(long[] a, boolean inverse) {
+        int n = a.length;
+        // Bit reversal permutation
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) j ^= bit;
+            j ^= bit;
+            if (i < j) {
+                long swap = a[i];
+                a[i] = a[j];
+                a[j] = swap;
+            }
+        }
+
+        long[] roots = new long[Math.max(1, n / 2)];
+        for (int len = 2; len <= n; len <<= 1) {
+            int half = len / 2;
+            long w = pow(ROOT, (MOD - 1) / len);
+            if (inverse) w = pow(w, MOD - 2);
+            roots[0] = 1;
+            for (int j = 1; j < half; j++) roots[j] = roots[j - 1] * w % MOD;
+            for (int i = 0; i < n; i += len) {
+                for (int j = 0; j < half; j++) {
+                    long u = a[i + j];
+                    long v = a[i + j + half] * roots[j] % MOD;
+                    long sum = u + v;
+                    a[i + j] = sum >= MOD ? sum - MOD : sum;
+                    long difference = u - v;
+                    a[i + j + half] = difference < 0 ? difference + MOD : difference;
+                }
+            }
+        }
+
+        if (inverse) {
+            long scale = pow(n, MOD - 2);
+            for (int i = 0; i < n; i++) a[i] = a[i] * scale % MOD;
+        }
+    }
+
+    private static long pow(long base, long exponent) {
+        long result = 1;
+        base %= MOD;
+        for (; exponent > 0; exponent >>= 1) {
+            if ((exponent & 1) != 0) result = result * base % MOD;
+            base = base * base % MOD;
+        }
+        return result;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        ConvolutionTargetSum common = new ConvolutionTargetSum();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ConvolutionTargetSum sequential = new ConvolutionTargetSum(single);
+
+        (new TestCase(new int[]{}, 1)).run(common);
+        (new TestCase(new int[]{}, 0)).run(common);
+        (new TestCase(new int[]{1, 1, 1, 1, 1}, 3)).run(common);
+        (new TestCase(new int[]{1, 2, 3, 4}, 0)).run(common);
+        (new TestCase(new int[]{-1, 2, 0, 0}, 1)).run(common);
+        (new TestCase(new int[]{100, 1, 1}, 0)).run(common);
+        assert common.count(new int[]{1, 2, 3, 4}, 0) == 2 : "count failed for the example";
+
+        // Against the row-by-row solution, with enough values to use the
+        // tree and enough terms to use the transform
+        Random r = new Random(0);
+        for (int t = 0; t < 30; t++) {
+            int[] nums = new int[r.nextInt(2000)];
+            int max = 1 + r.nextInt(20);
+            for (int i = 0; i < nums.length; i++) nums[i] = r.nextInt(2 * max + 1) - max;
+            long total = 0;
+            for (int num : nums) total += Math.abs(num);
+            int target = (int) (r.nextInt((int) total + 1) - total / 2);
+            (new TestCase(nums, target)).run(common);
+            (new TestCase(nums, target)).run(sequential);
+        }
+        single.shutdown();
+
+        // The transform against direct multiplication
+        for (int t = 0; t < 20; t++) {
+            long[] a = new long[1 + r.nextInt(500)];
+            long[] b = new long[1 + r.nextInt(500)];
+            for (int i = 0; i < a.length; i++) a[i] = r.nextInt((int) MOD);
+            for (int i = 0; i < b.length; i++) b[i] = r.nextInt((int) MOD);
+            long[] expected = new long[a.length + b.length - 1];
+            for (int i = 0; i < a.length; i++) {
+                for (int j = 0; j < b.length; j++) expected[i + j] = (expected[i + j] + a[i] * b[j]) % MOD;
+            }
+            int limit = 1 + r.nextInt(expected.length);
+            assert Arrays.equals(multiply(a, b, limit), Arrays.copyOf(expected, limit)):
+                "multiply failed for lengths " + a.length + " and " + b.length;
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases. The expected count comes
+    // from TargetSumCount
+    private static class TestCase {
+        private int[] nums;
+        private int target;
+
+        private TestCase(int[] nums, int target) {
+            this.nums = nums;
+            this.target = target;
+        }
+
+        private void run(ConvolutionTargetSum solver) {
+            assert solver.count(nums, target) == TargetSumCount.modulo(nums, target, MOD):
+                "count failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+        }
+    }
+}
@@ -13,6 +13,8 @@
  * Execution: javac EditDistance.java && java EditDistance
  */
 
+import java.util.Random;
+
 public class EditDistance {
     
     // Brute force solution
@@ -62,8 +64,51 @@ public class EditDistance {
         return dp[i][j];
     }
     
+    // Top-down dynamic solution driven by IterativeMemo, so long strings
+    // can't overflow the stack. State i * (m + 1) + j is the distance between
+    // the suffixes s1[i..] and s2[j..]. Every state gets a slot in one array,
+    // so (n + 1) * (m + 1) has to fit in one
+    public static int topDownEditDistanceIterative(String s1, String s2) {
+        final int n = s1.length();
+        final int m = s2.length();
+        long states = (long) (n + 1) * (m + 1);
+        if (states > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("strings too long");
+        IterativeMemo.Recurrence distance = new IterativeMemo.Recurrence() {
+            public long subproblem(long state, int k) {
+                int i = (int) (state / (m + 1));
+                int j = (int) (state % (m + 1));
+                if (i == n || j == m || k == 3) return IterativeMemo.NONE;
+                if (k == 0) return state + m + 2;   // (i+1, j+1)
+                if (k == 1) return state + m + 1;   // (i+1, j)
+                return state + 1;                   // (i, j+1)
+            }
+            
+            public long start(long state) {
+                return Integer.MAX_VALUE;
+            }
+            
+            public long combine(long state, int k, long acc, long value) {
+                if (k == 0) {
+                    int i = (int) (state / (m + 1));
+                    int j = (int) (state % (m + 1));
+                    return s1.charAt(i) == s2.charAt(j) ? value : value + 1;
+                }
+                return Math.min(acc, value + 1);
+            }
+            
+            public long finish(long state, long acc) {
+                int i = (int) (state / (m + 1));
+                int j = (int) (state % (m + 1));
+                if (i == n) return m - j;
+                if (j == m) return n - i;
+                return acc;
+            }
+        };
+        return (int) new IterativeMemo(distance, (int) states).solve(0);
+    }
+    
     // Bottom-up dynamic solution
-    private static int bottomUpEditDistance(String s1, String s2) {
+    public static int bottomUpEditDistance(String s1, String s2) {
         int[][] dp = new int[s1.length() + 1][s2.length() + 1];
         for (int i = 0; i < dp.length; i++) {
             for (int j = 0; j < dp[0].length; j++) {
@@ -84,7 +129,234 @@ public class EditDistance {
         
         return dp[s1.length()][s2.length()];
     }
-    
+
+    // Bit-parallel solution (Myers 1999, Hyyro 2003). Rather than storing the
+    // dp values of a column, we store whether each value went up or down by
+    // one compared to the value above it, one bit per row packed into longs.
+    // A whole column can then be updated with a handful of bitwise operations
+    // per 64 rows. Patterns of up to 64 characters fit in a single word;
+    // longer patterns are split into 64-row blocks
+    public static int bitParallelEditDistance(String s1, String s2) {
+        // Edit distance is symmetric, so use the shorter string as the pattern
+        if (s1.length() > s2.length()) {
+            String temp = s1;
+            s1 = s2;
+            s2 = temp;
+        }
+        return new BitPattern(s1).distance(s2);
+    }
+
+    // Precomputed bit masks for a pattern. For each character c, the match
+    // mask has bit i set if pattern.charAt(i) == c. Building this once lets
+    // the same pattern be compared against many texts
+    public static class BitPattern {
+        private int length;
+        private int blocks;
+        // codes[c] is the row of c's masks in peq, or 0 if c isn't in the
+        // pattern. Row 0 is all zeros so missing characters need no branch
+        private int[] codes;
+        // peq[code * blocks + b] is the match mask for block b
+        private long[] peq;
+
+        public BitPattern(CharSequence pattern) {
+            this.length = pattern.length();
+            this.blocks = Math.max(1, (length + 63) >>> 6);
+
+            int maxChar = 0;
+            for (int i = 0; i < length; i++) maxChar = Math.max(maxChar, pattern.charAt(i));
+            this.codes = new int[maxChar + 1];
+            int distinct = 0;
+            for (int i = 0; i < length; i++) {
+                char c = pattern.charAt(i);
+                if (codes[c] == 0) codes[c] = ++distinct;
+            }
+
+            this.peq = new long[(distinct + 1) * blocks];
+            for (int i = 0; i < length; i++) {
+                peq[codes[pattern.charAt(i)] * blocks + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+
+        public int length() {
+            return length;
+        }
+
+        // Number of 64-bit words per column
+        public int blocks() {
+            return blocks;
+        }
+
+        // Edit distance between the pattern and text
+        public int distance(CharSequence text) {
+            if (blocks == 1) return distanceSingleWord(text, Integer.MAX_VALUE);
+            return distance(text, new long[blocks], new long[blocks]);
+        }
+
+        // Edit distance using caller-provided scratch arrays of at least
+        // blocks() longs, so that repeated calls don't allocate
+        public int distance(CharSequence text, long[] pv, long[] mv) {
+            return boundedDistance(text, Integer.MAX_VALUE, pv, mv);
+        }
+
+        // Edit distance if it is at most k, otherwise k+1. The final score can
+        // drop by at most one per remaining text character, so we stop as soon
+        // as the current score minus the remaining characters is above k
+        public int boundedDistance(CharSequence text, int k, long[] pv, long[] mv) {
+            if (Math.abs(text.length() - length) > k) return k + 1;
+            if (length == 0) return text.length();
+            if (blocks == 1) return distanceSingleWord(text, k);
+
+            start(pv, mv);
+            int score = length;
+            int n = text.length();
+            for (int j = 0; j < n; j++) {
+                score += advance(text.charAt(j), pv, mv);
+                if (score - (n - j - 1) > k) return k + 1;
+            }
+            return score;
+        }
+
+        // Reset pv and mv to the empty text. Every vertical delta starts at
+        // +1 because dp[i][0] = i, and the distance to the empty text is
+        // length()
+        public void start(long[] pv, long[] mv) {
+            for (int b = 0; b < blocks; b++) {
+                pv[b] = -1L;
+                mv[b] = 0L;
+            }
+        }
+
+        // Extend the text by one character, updating pv and mv in place.
+        // Returns how much the distance changed: -1, 0 or +1
+        public int advance(char c, long[] pv, long[] mv) {
+            if (length == 0) return 1;
+            int row = match(c) * blocks;
+            long lastBit = 1L << ((length - 1) & 63);
+            // The top row is dp[0][j] = j, so the horizontal delta coming
+            // into the first block is always +1
+            int carry = 1;
+            for (int b = 0; b < blocks; b++) {
+                long eq = peq[row + b];
+                long p = pv[b];
+                long m = mv[b];
+                long xv = eq | m;
+                if (carry < 0) eq |= 1L;
+                long xh = (((eq & p) + p) ^ p) | eq;
+                long ph = m | ~(xh | p);
+                long mh = p & xh;
+
+                long high = b == blocks - 1 ? lastBit : Long.MIN_VALUE;
+                int out = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+
+                ph <<= 1;
+                mh <<= 1;
+                if (carry < 0) mh |= 1L;
+                else if (carry > 0) ph |= 1L;
+                pv[b] = mh | ~(xv | ph);
+                mv[b] = ph & xv;
+                carry = out;
+            }
+            return carry;
+        }
+
+        private int distanceSingleWord(CharSequence text, int k) {
+            if (length == 0) return text.length();
+            long pv = -1L;
+            long mv = 0L;
+            long lastBit = 1L << (length - 1);
+            int score = length;
+            int n = text.length();
+            for (int j = 0; j < n; j++) {
+                long eq = peq[match(text.charAt(j))];
+                long xv = eq | mv;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & lastBit) != 0) score++;
+                else if ((mh & lastBit) != 0) score--;
+                if (score - (n - j - 1) > k) return k + 1;
+                ph = (ph << 1) | 1L;
+                mh <<= 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+            }
+            return score;
+        }
+
+        private int match(char c) {
+            return c < codes.length ? codes[c] : 0;
+        }
+    }
+
+    // Thresholded solution. Returns true if the edit distance is at most k
+    public static boolean editDistanceAtMost(String s1, String s2, int k) {
+        return boundedEditDistance(s1, s2, k) <= k;
+    }
+
+    // Banded dynamic solution (Ukkonen 1985). Returns the edit distance if it
+    // is at most k, otherwise k+1. Any path through the table that strays more
+    // than k cells from the main diagonal already costs more than k, so we
+    // only need the band of 2k+1 cells around the diagonal in each row. If
+    // every cell in a row is above k, the answer can only be larger, so we
+    // stop early
+    public static int boundedEditDistance(String s1, String s2, int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be non-negative");
+        int n = s1.length();
+        int m = s2.length();
+        // Every extra character in the longer string needs an insertion
+        if (Math.abs(n - m) > k) return k + 1;
+
+        // Matching prefixes and suffixes never change the distance
+        int start = 0;
+        while (start < n && start < m && s1.charAt(start) == s2.charAt(start)) start++;
+        while (n > start && m > start && s1.charAt(n - 1) == s2.charAt(m - 1)) {
+            n--;
+            m--;
+        }
+        n -= start;
+        m -= start;
+        if (n == 0 || m == 0) return Math.max(n, m);
+
+        // A band wider than the table doesn't help
+        k = Math.min(k, Math.max(n, m));
+        int inf = k + 1;
+        // band[d] holds dp[i][i - k + d]. The extra cell at each end is a
+        // sentinel for cells outside the band. Moving down a row shifts the
+        // band right by one, so dp[i-1][j-1] is at the same index d and
+        // dp[i-1][j] is at d+1. That lets us update the band in place
+        int[] band = new int[2 * k + 3];
+        for (int d = 0; d < band.length; d++) {
+            int j = d - 1 - k;
+            band[d] = j >= 0 && j <= k ? j : inf;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            char c = s1.charAt(start + i - 1);
+            int rowMin = inf;
+            band[0] = inf;
+            for (int d = 1; d < band.length - 1; d++) {
+                int j = i - k + d - 1;
+                int value;
+                if (j < 0 || j > m) {
+                    value = inf;
+                } else if (j == 0) {
+                    value = Math.min(i, inf);
+                } else {
+                    value = band[d];
+                    if (c != s2.charAt(start + j - 1)) value++;
+                    value = Math.min(value, band[d + 1] + 1);
+                    value = Math.min(value, band[d - 1] + 1);
+                    value = Math.min(value, inf);
+                }
+                band[d] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > k) return inf;
+        }
+
+        return band[m - n + k + 1];
+    }
+
     // Sample testcases
     public static void main(String[] args) {
         (new TestCase("A", "A", 0)).run();
@@ -92,8 +364,40 @@ public class EditDistance {
         (new TestCase("ABC", "ACB", 2)).run();
         (new TestCase("AC", "ABCD", 2)).run();
         (new TestCase("", "ABCD", 4)).run();
+
+        // The bit-parallel solution changes strategy at 64 characters and the
+        // banded solution depends on k, so compare them against the bottom-up
+        // solution on longer random strings
+        Random r = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            String s1 = randomString(r, r.nextInt(300), i % 2 == 0 ? 4 : 26);
+            String s2 = randomString(r, r.nextInt(300), i % 2 == 0 ? 4 : 26);
+            int expected = bottomUpEditDistance(s1, s2);
+            assert bitParallelEditDistance(s1, s2) == expected:
+                "bitParallelEditDistance failed for input = " + s1 + " " + s2;
+            int k = r.nextInt(expected + 2);
+            assert boundedEditDistance(s1, s2, k) == Math.min(expected, k + 1):
+                "boundedEditDistance failed for k = " + k + ", input = " + s1 + " " + s2;
+        }
+
+        // Too many states for one array, including where (n + 1) * (m + 1)
+        // would overflow an int
+        for (int length : new int[]{46341, 65536}) {
+            String s = randomString(r, length, 4);
+            try {
+                topDownEditDistanceIterative(s, s);
+                assert false : "topDownEditDistanceIterative failed to reject length " + length;
+            } catch (IllegalArgumentException e) {
+            }
+        }
         System.out.println("Passed all test cases");
     }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
     
     // Class for defining and running test cases
     private static class TestCase {
@@ -112,8 +416,16 @@ public class EditDistance {
                 "bruteForceEditDistance failed for input = " + s1 + " " + s2;
             assert topDownEditDistance(s1, s2) == output:
                 "topDownEditDistance failed for input = " + s1 + " " + s2;
+            assert topDownEditDistanceIterative(s1, s2) == output:
+                "topDownEditDistanceIterative failed for input = " + s1 + " " + s2;
             assert bottomUpEditDistance(s1, s2) == output:
                 "bottomUpEditDistance failed for input = " + s1 + " " + s2;
+            assert bitParallelEditDistance(s1, s2) == output:
+                "bitParallelEditDistance failed for input = " + s1 + " " + s2;
+            assert editDistanceAtMost(s1, s2, output):
+                "editDistanceAtMost failed for input = " + s1 + " " + s2;
+            assert output == 0 || !editDistanceAtMost(s1, s2, output - 1):
+                "editDistanceAtMost failed for input = " + s1 + " " + s2;
         }
     }
 }
\ No newline at end of file
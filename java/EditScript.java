@@ -0,0 +1,359 @@
+/*
+ * Title: Edit Script
+ * Date: 10/18/2026
+ *
+ * Given two strings, find not just the edit distance between them but the
+ * actual sequence of edits that turns the first string into the second.
+ *
+ * eg.
+ * editScript("ABCD", "ACBD") = 1M2S1M (A, B->C, C->B, D)
+ * editScript("AC", "ABCD") = 1M1I1M1I (A, +B, C, +D)
+ *
+ * The usual way to do this is to keep the whole dp table from EditDistance
+ * and walk back through it, but that takes O(n*m) memory. Instead we use
+ * Hirschberg's divide and conquer algorithm. We split s1 in half and compute
+ * the last row of the dp table for the top half going forwards and for the
+ * bottom half going backwards. The column where their sum is smallest is
+ * where the optimal path crosses the middle row, so we can recurse on the two
+ * quadrants on either side of that point. Only a couple of rows are ever
+ * alive at once, so memory is O(n + m), and the two quadrants are independent
+ * so we solve them in parallel.
+ *
+ * The result is run-length encoded. Each run is packed into one int: the
+ * operation in the low 2 bits and the run length in the rest.
+ *
+ * Execution: javac EditScript.java && java EditScript
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class EditScript {
+    // Operations, applied in order while walking through s1 and s2
+    public static final int MATCH = 0;       // s1[i] == s2[j], advance both
+    public static final int SUBSTITUTE = 1;  // replace s1[i] with s2[j], advance both
+    public static final int INSERT = 2;      // insert s2[j], advance s2
+    public static final int DELETE = 3;      // delete s1[i], advance s1
+
+    private static final char[] OP_CODES = {'M', 'S', 'I', 'D'};
+    // Subproblems with at most this many cells are solved with a full table
+    private static final int BASE_CELLS = 4096;
+    // Subproblems with at least this many cells are split across threads
+    private static final long PARALLEL_CELLS = 1L << 18;
+
+    private int[] runs;
+    private int size;
+    private int distance;
+
+    private EditScript(Runs runs) {
+        this.runs = runs.toArray();
+        this.size = runs.size;
+        for (int i = 0; i < size; i++) {
+            if (op(i) != MATCH) distance += length(i);
+        }
+    }
+
+    // Compute the edit script using the common pool
+    public static EditScript compute(String s1, String s2) {
+        return compute(s1, s2, ForkJoinPool.commonPool());
+    }
+
+    public static EditScript compute(String s1, String s2, ForkJoinPool pool) {
+        char[] a = s1.toCharArray();
+        char[] b = s2.toCharArray();
+        return new EditScript(pool.invoke(new Task(a, 0, a.length, b, 0, b.length)));
+    }
+
+    // Number of runs
+    public int size() {
+        return size;
+    }
+
+    // Operation of the i-th run
+    public int op(int i) {
+        return runs[i] & 3;
+    }
+
+    // Length of the i-th run
+    public int length(int i) {
+        return runs[i] >>> 2;
+    }
+
+    // Total cost of the script, equal to the edit distance
+    public int distance() {
+        return distance;
+    }
+
+    // Packed runs, one per int
+    public int[] toArray() {
+        return Arrays.copyOf(runs, size);
+    }
+
+    // Check that the script turns s1 into s2
+    public boolean transforms(String s1, String s2) {
+        int i = 0;
+        int j = 0;
+        for (int r = 0; r < size; r++) {
+            for (int k = 0; k < length(r); k++) {
+                switch (op(r)) {
+                    case MATCH:
+                        if (i >= s1.length() || j >= s2.length()) return false;
+                        if (s1.charAt(i++) != s2.charAt(j++)) return false;
+                        break;
+                    case SUBSTITUTE:
+                        if (i >= s1.length() || j >= s2.length()) return false;
+                        if (s1.charAt(i++) == s2.charAt(j++)) return false;
+                        break;
+                    case INSERT:
+                        if (j++ >= s2.length()) return false;
+                        break;
+                    default:
+                        if (i++ >= s1.length()) return false;
+                }
+            }
+        }
+        return i == s1.length() && j == s2.length();
+    }
+
+    // CIGAR-style string, eg. 3M1S2I
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) sb.append(length(i)).append(OP_CODES[op(i)]);
+        return sb.toString();
+    }
+
+    // Growable list of packed runs. Appending the same operation as the last
+    // run extends that run instead of adding a new one
+    private static class Runs {
+        private int[] data = new int[8];
+        private int size;
+
+        private void append(int op, int length) {
+            if (length == 0) return;
+            if (size > 0 && (data[size - 1] & 3) == op) {
+                data[size - 1] += length << 2;
+                return;
+            }
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = (length << 2) | op;
+        }
+
+        private void appendAll(Runs other) {
+            for (int i = 0; i < other.size; i++) {
+                append(other.data[i] & 3, other.data[i] >>> 2);
+            }
+        }
+
+        private int[] toArray() {
+            return data;
+        }
+    }
+
+    // Solves a[aLo..aHi) against b[bLo..bHi)
+    private static class Task extends RecursiveTask<Runs> {
+        private static final long serialVersionUID = 1L;
+        private char[] a;
+        private int aLo;
+        private int aHi;
+        private char[] b;
+        private int bLo;
+        private int bHi;
+
+        private Task(char[] a, int aLo, int aHi, char[] b, int bLo, int bHi) {
+            this.a = a;
+            this.aLo = aLo;
+            this.aHi = aHi;
+            this.b = b;
+            this.bLo = bLo;
+            this.bHi = bHi;
+        }
+
+        @Override
+        protected Runs compute() {
+            int n = aHi - aLo;
+            int m = bHi - bLo;
+            if (n == 0 || m == 0) {
+                Runs runs = new Runs();
+                runs.append(DELETE, n);
+                runs.append(INSERT, m);
+                return runs;
+            }
+            if (n == 1 || (long) (n + 1) * (m + 1) <= BASE_CELLS) return solveDirectly();
+
+            // Find where the optimal path crosses the middle row
+            int aMid = aLo + n / 2;
+            int[] forward = forwardRow(aLo, aMid);
+            int[] backward = backwardRow(aMid, aHi);
+            int split = 0;
+            for (int t = 1; t <= m; t++) {
+                if (forward[t] + backward[t] < forward[split] + backward[split]) split = t;
+            }
+            // Let the rows be collected before we recurse
+            forward = null;
+            backward = null;
+
+            Task top = new Task(a, aLo, aMid, b, bLo, bLo + split);
+            Task bottom = new Task(a, aMid, aHi, b, bLo + split, bHi);
+            Runs runs;
+            if ((long) n * m >= PARALLEL_CELLS) {
+                bottom.fork();
+                runs = top.compute();
+                runs.appendAll(bottom.join());
+            } else {
+                runs = top.compute();
+                runs.appendAll(bottom.compute());
+            }
+            return runs;
+        }
+
+        // row[t] = edit distance between a[lo..hi) and b[bLo..bLo+t)
+        private int[] forwardRow(int lo, int hi) {
+            int m = bHi - bLo;
+            int[] row = new int[m + 1];
+            for (int t = 0; t <= m; t++) row[t] = t;
+            for (int i = lo; i < hi; i++) {
+                char c = a[i];
+                int diag = row[0];
+                row[0] = i - lo + 1;
+                for (int t = 1; t <= m; t++) {
+                    int up = row[t];
+                    int min = diag;
+                    if (c != b[bLo + t - 1]) min++;
+                    min = Math.min(min, up + 1);
+                    min = Math.min(min, row[t - 1] + 1);
+                    row[t] = min;
+                    diag = up;
+                }
+            }
+            return row;
+        }
+
+        // row[t] = edit distance between a[lo..hi) and b[bLo+t..bHi)
+        private int[] backwardRow(int lo, int hi) {
+            int m = bHi - bLo;
+            int[] row = new int[m + 1];
+            for (int t = 0; t <= m; t++) row[t] = m - t;
+            for (int i = hi - 1; i >= lo; i--) {
+                char c = a[i];
+                int diag = row[m];
+                row[m] = hi - i;
+                for (int t = m - 1; t >= 0; t--) {
+                    int down = row[t];
+                    int min = diag;
+                    if (c != b[bLo + t]) min++;
+                    min = Math.min(min, down + 1);
+                    min = Math.min(min, row[t + 1] + 1);
+                    row[t] = min;
+                    diag = down;
+                }
+            }
+            return row;
+        }
+
+        // Small enough for the whole table. Fill it like
+        // EditDistance.bottomUpEditDistance and walk back from the corner
+        private Runs solveDirectly() {
+            int n = aHi - aLo;
+            int m = bHi - bLo;
+            int[][] dp = new int[n + 1][m + 1];
+            for (int i = 0; i <= n; i++) {
+                for (int j = 0; j <= m; j++) {
+                    if (i == 0) {
+                        dp[i][j] = j;
+                    } else if (j == 0) {
+                        dp[i][j] = i;
+                    } else {
+                        int min = dp[i-1][j-1];
+                        if (a[aLo + i - 1] != b[bLo + j - 1]) min++;
+                        min = Math.min(min, dp[i-1][j] + 1);
+                        min = Math.min(min, dp[i][j-1] + 1);
+                        dp[i][j] = min;
+                    }
+                }
+            }
+
+            // The walk goes backwards, so record the ops and then reverse them
+            int[] ops = new int[n + m];
+            int count = 0;
+            int i = n;
+            int j = m;
+            while (i > 0 || j > 0) {
+                if (i > 0 && j > 0) {
+                    boolean same = a[aLo + i - 1] == b[bLo + j - 1];
+                    if (dp[i][j] == dp[i-1][j-1] + (same ? 0 : 1)) {
+                        ops[count++] = same ? MATCH : SUBSTITUTE;
+                        i--;
+                        j--;
+                        continue;
+                    }
+                }
+                if (i > 0 && dp[i][j] == dp[i-1][j] + 1) {
+                    ops[count++] = DELETE;
+                    i--;
+                } else {
+                    ops[count++] = INSERT;
+                    j--;
+                }
+            }
+
+            Runs runs = new Runs();
+            for (int k = count - 1; k >= 0; k--) runs.append(ops[k], 1);
+            return runs;
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase("A", "A", "1M")).run();
+        (new TestCase("A", "B", "1S")).run();
+        (new TestCase("", "ABCD", "4I")).run();
+        (new TestCase("ABCD", "", "4D")).run();
+        (new TestCase("ABCD", "ACBD", "1M2S1M")).run();
+        (new TestCase("AC", "ABCD", "1M1I1M1I")).run();
+
+        // Large enough to go through several levels of divide and conquer.
+        // There can be many optimal scripts, so only check that the script
+        // is valid and optimal
+        Random r = new Random(0);
+        for (int i = 0; i < 30; i++) {
+            String s1 = randomString(r, r.nextInt(400), 4);
+            String s2 = randomString(r, r.nextInt(400), 4);
+            EditScript script = compute(s1, s2);
+            assert script.transforms(s1, s2):
+                "compute produced an invalid script for input = " + s1 + " " + s2;
+            assert script.distance() == EditDistance.bottomUpEditDistance(s1, s2):
+                "compute produced a suboptimal script for input = " + s1 + " " + s2;
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private String s1;
+        private String s2;
+        private String output;
+
+        private TestCase(String s1, String s2, String output) {
+            this.s1 = s1;
+            this.s2 = s2;
+            this.output = output;
+        }
+
+        private void run() {
+            EditScript script = compute(s1, s2);
+            assert script.toString().equals(output):
+                "compute failed for input = " + s1 + " " + s2 + ", got " + script;
+            assert script.transforms(s1, s2):
+                "transforms failed for input = " + s1 + " " + s2;
+        }
+    }
+}
@@ -42,6 +42,26 @@ public class Fibonacci {
         return dp[n];
     }
     
+    // Top-down dynamic solution driven by IterativeMemo, so large n can't
+    // overflow the stack
+    public static int topDownFibIterative(int n) {
+        IterativeMemo.Recurrence fib = new IterativeMemo.Recurrence() {
+            public long subproblem(long state, int k) {
+                if (state < 2 || k == 2) return IterativeMemo.NONE;
+                return state - 1 - k;
+            }
+            
+            public long combine(long state, int k, long acc, long value) {
+                return (int) (acc + value);
+            }
+            
+            public long finish(long state, long acc) {
+                return state < 2 ? state : acc;
+            }
+        };
+        return (int) new IterativeMemo(fib, n + 1).solve(n);
+    }
+    
     // Bottom-up dynamic solution
     public static int bottomUpFib(int n) {
         if (n == 0) return 0;
@@ -80,6 +100,10 @@ public class Fibonacci {
         (new TestCase(2, 1)).run();
         (new TestCase(5, 5)).run();
         (new TestCase(10, 55)).run();
+        // Deep enough to overflow the stack if we recursed. The value
+        // overflows too, but the same way as bottomUpFib
+        assert topDownFibIterative(1_000_000) == bottomUpFib(1_000_000):
+            "topDownFibIterative failed for input = 1000000";
         System.out.println("Passed all test cases");
     }
     
@@ -98,6 +122,8 @@ public class Fibonacci {
                 "bruteForceFib failed for input = " + input;
             assert topDownFib(input) == output:
                 "topDownFib failed for input = " + input;
+            assert topDownFibIterative(input) == output:
+                "topDownFibIterative failed for input = " + input;
             assert bottomUpFib(input) == output:
                 "bottomUpFib failed for input = " + input;
             assert bottomUpFibOptimized(input) == output:
@@ -0,0 +1,627 @@
+/*
+ * Title: Fuzzy Index
+ * Date: 10/18/2026
+ *
+ * Given a dictionary of words, answer "which words are within edit distance k
+ * of this query" and "which words are closest to this query" without
+ * comparing the query against every word.
+ *
+ * eg.
+ * words = {"BAT", "CART", "CAT", "COAT", "DOG"}
+ * within("CAT", 1) = {CAT:0, BAT:1, CART:1, COAT:1}
+ * nearest("CAT", 2) = {CAT:0, BAT:1}
+ *
+ * There are two ways to organise the dictionary:
+ *
+ * BK_TREE: Each node holds a word, and its children are grouped by their
+ * edit distance to that word. Edit distance obeys the triangle inequality, so
+ * if the query is distance d from a node, only children at distance d-k to
+ * d+k can contain matches. The tree is built top down: compute every word's
+ * distance to the root, bucket by distance, and build each bucket's subtree
+ * in parallel.
+ *
+ * TRIE: Words that share a prefix share the rows of the EditDistance dp table
+ * for that prefix. We walk the trie in order and compute one dp row per node,
+ * reusing the parent's row. If every value in a row is above k, no word below
+ * that node can match, so we skip the whole subtree.
+ *
+ * Either way the index is stored in flat int and char arrays. save() writes
+ * those arrays to a binary file and load() memory-maps the file back and
+ * queries it in place, so a large dictionary doesn't need to be rebuilt or
+ * even read into the heap on startup. An index is never modified after it is
+ * built, so any number of threads can query it at once.
+ *
+ * Matches are packed longs in the same format as BatchEditDistance, so use
+ * BatchEditDistance.distanceOf() and indexOf() to unpack them. Indexes refer
+ * to word(i), which is the sorted, deduplicated dictionary.
+ *
+ * Execution: javac FuzzyIndex.java && java FuzzyIndex
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class FuzzyIndex {
+    public enum Mode { BK_TREE, TRIE }
+
+    private static final int MAGIC = 0x465A4958; // "FZIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 9;
+    // Subtrees with more words than this are built in parallel
+    private static final int PARALLEL_BUILD = 4096;
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    private Mode mode;
+    private int count;
+    private int maxLength;
+
+    // Word i is chars[offsets[i]..offsets[i+1])
+    private IntBuffer offsets;
+    private CharBuffer chars;
+
+    // Trie nodes in preorder. Node 0 is the root. The subtree of node v is
+    // v..trieEnd[v]-1, so its first child is v+1 and the next sibling of a
+    // child c is trieEnd[c]
+    private CharBuffer trieLabel;
+    private IntBuffer trieWord;
+    private IntBuffer trieEnd;
+    private IntBuffer trieDepth;
+
+    // BK-tree nodes in breadth-first order. Node 0 is the root. The children
+    // of node v are bkChild[bkChildStart[v]..bkChildStart[v+1]), sorted by
+    // their distance to v in bkChildDist
+    private IntBuffer bkWord;
+    private IntBuffer bkChildStart;
+    private IntBuffer bkChildDist;
+    private IntBuffer bkChild;
+
+    private FuzzyIndex() {
+    }
+
+    // Build an index over words using the common pool
+    public static FuzzyIndex build(String[] words, Mode mode) {
+        return build(words, mode, ForkJoinPool.commonPool());
+    }
+
+    public static FuzzyIndex build(String[] words, Mode mode, ForkJoinPool pool) {
+        String[] sorted = words.clone();
+        Arrays.parallelSort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || !sorted[i].equals(sorted[unique - 1])) sorted[unique++] = sorted[i];
+        }
+        sorted = Arrays.copyOf(sorted, unique);
+
+        FuzzyIndex index = new FuzzyIndex();
+        index.mode = mode;
+        index.count = unique;
+        int[] offsets = new int[unique + 1];
+        StringBuilder chars = new StringBuilder();
+        for (int i = 0; i < unique; i++) {
+            chars.append(sorted[i]);
+            offsets[i + 1] = chars.length();
+            index.maxLength = Math.max(index.maxLength, sorted[i].length());
+        }
+        index.offsets = IntBuffer.wrap(offsets);
+        index.chars = CharBuffer.wrap(chars.toString().toCharArray());
+
+        if (mode == Mode.TRIE) index.buildTrie(sorted);
+        else index.buildBkTree(sorted, pool);
+        return index;
+    }
+
+    // Number of distinct words
+    public int size() {
+        return count;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public String word(int i) {
+        return chars.subSequence(offsets.get(i), offsets.get(i + 1)).toString();
+    }
+
+    // Every word within distance k of query, sorted by distance
+    public long[] within(CharSequence query, int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be non-negative");
+        Matches matches = new Matches(k, 0);
+        if (mode == Mode.TRIE) searchTrie(query, matches);
+        else searchBkTree(query, matches);
+        return matches.toArray();
+    }
+
+    // The count words closest to query, sorted by distance. Ties are broken
+    // by the lower index
+    public long[] nearest(CharSequence query, int count) {
+        if (count < 0) throw new IllegalArgumentException("count must be non-negative");
+        count = Math.min(count, this.count);
+        if (count == 0) return new long[0];
+        Matches matches = new Matches(INFINITY, count);
+        if (mode == Mode.TRIE) searchTrie(query, matches);
+        else searchBkTree(query, matches);
+        return matches.toArray();
+    }
+
+    // Collects matches for a single query. Threshold queries keep everything
+    // within the bound; nearest queries keep a heap and shrink the bound as
+    // the heap fills up
+    private static class Matches {
+        private int bound;
+        private BatchEditDistance.Heap heap;
+        private long[] data = new long[16];
+        private int size;
+
+        private Matches(int bound, int nearest) {
+            this.bound = bound;
+            if (nearest > 0) this.heap = new BatchEditDistance.Heap(nearest);
+        }
+
+        private void offer(int distance, int word) {
+            if (distance > bound) return;
+            long match = BatchEditDistance.pack(distance, word);
+            if (heap != null) {
+                heap.offer(match);
+                if (heap.isFull()) bound = BatchEditDistance.distanceOf(heap.max());
+                return;
+            }
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = match;
+        }
+
+        // Once a nearest query has count matches, a word at exactly the
+        // current bound can only get in with a lower index
+        private boolean full() {
+            return heap != null && heap.isFull();
+        }
+
+        private long[] toArray() {
+            long[] result = heap != null ? Arrays.copyOf(heap.data, heap.size)
+                : Arrays.copyOf(data, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    private void buildTrie(String[] sorted) {
+        IntList word = new IntList();
+        IntList end = new IntList();
+        IntList depth = new IntList();
+        StringBuilder label = new StringBuilder();
+
+        // Root
+        label.append('\0');
+        word.add(-1);
+        end.add(0);
+        depth.add(0);
+
+        // open[d] is the node at depth d on the path to the previous word
+        int[] open = new int[maxLength + 1];
+        int openDepth = 0;
+        String previous = "";
+        for (int i = 0; i < sorted.length; i++) {
+            String w = sorted[i];
+            int lcp = 0;
+            while (lcp < w.length() && lcp < previous.length()
+                   && w.charAt(lcp) == previous.charAt(lcp)) lcp++;
+            // Close every node below the shared prefix
+            for (; openDepth > lcp; openDepth--) end.set(open[openDepth], label.length());
+            for (int d = lcp + 1; d <= w.length(); d++) {
+                open[d] = label.length();
+                label.append(w.charAt(d - 1));
+                word.add(-1);
+                end.add(0);
+                depth.add(d);
+            }
+            openDepth = w.length();
+            word.set(open[openDepth], i);
+            previous = w;
+        }
+        for (; openDepth >= 0; openDepth--) end.set(open[openDepth], label.length());
+
+        trieLabel = CharBuffer.wrap(label.toString().toCharArray());
+        trieWord = IntBuffer.wrap(word.toArray());
+        trieEnd = IntBuffer.wrap(end.toArray());
+        trieDepth = IntBuffer.wrap(depth.toArray());
+    }
+
+    // Walk the trie in preorder, computing one dp row per node on top of its
+    // parent's row. In preorder the last node we saw at depth d-1 is always
+    // the parent of a node at depth d, so one row per depth is enough
+    private void searchTrie(CharSequence query, Matches matches) {
+        int m = query.length();
+        char[] q = new char[m];
+        for (int j = 0; j < m; j++) q[j] = query.charAt(j);
+        int width = m + 1;
+        int[] rows = new int[(maxLength + 1) * width];
+        for (int j = 0; j <= m; j++) rows[j] = j;
+
+        // The root is the empty word
+        if (trieWord.get(0) >= 0) matches.offer(m, trieWord.get(0));
+        int nodes = trieEnd.get(0);
+        int v = 1;
+        while (v < nodes) {
+            int d = trieDepth.get(v);
+            char c = trieLabel.get(v);
+            int prev = (d - 1) * width;
+            int cur = d * width;
+            rows[cur] = d;
+            int min = d;
+            for (int j = 1; j <= m; j++) {
+                int value = rows[prev + j - 1];
+                if (q[j - 1] != c) value++;
+                value = Math.min(value, rows[prev + j] + 1);
+                value = Math.min(value, rows[cur + j - 1] + 1);
+                rows[cur + j] = value;
+                min = Math.min(min, value);
+            }
+
+            int w = trieWord.get(v);
+            if (w >= 0) matches.offer(rows[cur + m], w);
+            // Words are visited in index order, so once a nearest query is
+            // full a later word needs a strictly smaller distance to get in
+            boolean prune = matches.full() ? min >= matches.bound : min > matches.bound;
+            v = prune ? trieEnd.get(v) : v + 1;
+        }
+    }
+
+    // Intermediate tree used while building the BK-tree in parallel
+    private static class BkNode {
+        private int word;
+        private int[] dists = new int[0];
+        private BkNode[] children = new BkNode[0];
+    }
+
+    private static class BkBuild extends RecursiveTask<BkNode> {
+        private static final long serialVersionUID = 1L;
+        private String[] words;
+        private int[] ids;
+        private ForkJoinPool pool;
+
+        private BkBuild(String[] words, int[] ids, ForkJoinPool pool) {
+            this.words = words;
+            this.ids = ids;
+            this.pool = pool;
+        }
+
+        @Override
+        protected BkNode compute() {
+            BkNode node = new BkNode();
+            node.word = ids[0];
+            int n = ids.length;
+            if (n == 1) return node;
+
+            // Distance from the root word to every other word
+            int[] dist;
+            if (n > PARALLEL_BUILD) {
+                String[] rest = new String[n - 1];
+                for (int i = 1; i < n; i++) rest[i - 1] = words[ids[i]];
+                dist = new BatchEditDistance(words[ids[0]], pool).distances(rest);
+            } else {
+                EditDistance.BitPattern root = new EditDistance.BitPattern(words[ids[0]]);
+                long[] pv = new long[root.blocks()];
+                long[] mv = new long[root.blocks()];
+                dist = new int[n - 1];
+                for (int i = 1; i < n; i++) dist[i - 1] = root.distance(words[ids[i]], pv, mv);
+            }
+
+            // Counting sort the words into one bucket per distance. Words are
+            // distinct so every distance is at least 1
+            int maxDist = 0;
+            for (int d : dist) maxDist = Math.max(maxDist, d);
+            int[] start = new int[maxDist + 2];
+            for (int d : dist) start[d + 1]++;
+            int buckets = 0;
+            for (int d = 1; d <= maxDist; d++) if (start[d + 1] > 0) buckets++;
+            for (int d = 1; d <= maxDist + 1; d++) start[d] += start[d - 1];
+            int[] sortedIds = new int[n - 1];
+            int[] fill = Arrays.copyOf(start, start.length);
+            for (int i = 0; i < dist.length; i++) sortedIds[fill[dist[i]]++] = ids[i + 1];
+
+            node.dists = new int[buckets];
+            BkBuild[] tasks = new BkBuild[buckets];
+            int b = 0;
+            for (int d = 1; d <= maxDist; d++) {
+                if (start[d + 1] == start[d]) continue;
+                node.dists[b] = d;
+                tasks[b++] = new BkBuild(words, Arrays.copyOfRange(sortedIds, start[d], start[d + 1]), pool);
+            }
+            node.children = new BkNode[buckets];
+            if (n > PARALLEL_BUILD) {
+                invokeAll(tasks);
+                for (int i = 0; i < buckets; i++) node.children[i] = tasks[i].join();
+            } else {
+                for (int i = 0; i < buckets; i++) node.children[i] = tasks[i].compute();
+            }
+            return node;
+        }
+    }
+
+    private void buildBkTree(String[] sorted, ForkJoinPool pool) {
+        int[] word = new int[count];
+        int[] childStart = new int[count + 1];
+        int[] childDist = new int[Math.max(0, count - 1)];
+        int[] child = new int[Math.max(0, count - 1)];
+        if (count > 0) {
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) ids[i] = i;
+            BkNode root = pool.invoke(new BkBuild(sorted, ids, pool));
+
+            // Flatten breadth first so that each node's children are numbered
+            // consecutively
+            ArrayDeque<BkNode> queue = new ArrayDeque<BkNode>();
+            queue.add(root);
+            int node = 0;
+            int next = 1;
+            int edge = 0;
+            while (!queue.isEmpty()) {
+                BkNode current = queue.poll();
+                word[node] = current.word;
+                childStart[node] = edge;
+                for (int i = 0; i < current.children.length; i++) {
+                    childDist[edge] = current.dists[i];
+                    child[edge++] = next++;
+                    queue.add(current.children[i]);
+                }
+                node++;
+            }
+            childStart[count] = edge;
+        }
+        bkWord = IntBuffer.wrap(word);
+        bkChildStart = IntBuffer.wrap(childStart);
+        bkChildDist = IntBuffer.wrap(childDist);
+        bkChild = IntBuffer.wrap(child);
+    }
+
+    private void searchBkTree(CharSequence query, Matches matches) {
+        if (count == 0) return;
+        EditDistance.BitPattern pattern = new EditDistance.BitPattern(query);
+        long[] pv = new long[pattern.blocks()];
+        long[] mv = new long[pattern.blocks()];
+        // Reusable view onto the word being compared
+        CharBuffer view = chars.duplicate();
+
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int first = bkChildStart.get(node);
+            int last = bkChildStart.get(node + 1);
+            int w = bkWord.get(node);
+            view.clear();
+            view.limit(offsets.get(w + 1));
+            view.position(offsets.get(w));
+
+            // We only need the exact distance if some child could still be in
+            // range, ie. if it's at most bound + the farthest child distance
+            int bound = matches.bound;
+            int farthest = last > first ? bkChildDist.get(last - 1) : 0;
+            int d = pattern.boundedDistance(view, Math.min(INFINITY, bound + farthest), pv, mv);
+            matches.offer(d, w);
+
+            bound = matches.bound;
+            for (int e = first; e < last; e++) {
+                int c = bkChildDist.get(e);
+                if (c < d - bound) continue;
+                if (c > d + bound) break;
+                if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                stack[top++] = bkChild.get(e);
+            }
+        }
+    }
+
+    // Write the index to a file that load() can memory-map. All values are
+    // big-endian and every section starts on a 4 byte boundary
+    public void save(Path file) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+            boolean trie = mode == Mode.TRIE;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(mode.ordinal());
+            out.writeInt(count);
+            out.writeInt(maxLength);
+            out.writeInt(chars.capacity());
+            out.writeInt(trie ? trieLabel.capacity() : 0);
+            out.writeInt(trie ? 0 : bkWord.capacity());
+            out.writeInt(trie ? 0 : bkChild.capacity());
+            writeInts(out, offsets);
+            writeChars(out, chars);
+            if (trie) {
+                writeChars(out, trieLabel);
+                writeInts(out, trieWord);
+                writeInts(out, trieEnd);
+                writeInts(out, trieDepth);
+            } else {
+                writeInts(out, bkWord);
+                writeInts(out, bkChildStart);
+                writeInts(out, bkChildDist);
+                writeInts(out, bkChild);
+            }
+        }
+    }
+
+    // Memory-map an index written by save(). The file is only read, never
+    // copied into the heap
+    public static FuzzyIndex load(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buf.capacity() < HEADER_INTS * 4 || buf.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a fuzzy index");
+        }
+        if (buf.getInt(4) != VERSION) {
+            throw new IOException(file + " has unsupported version " + buf.getInt(4));
+        }
+
+        FuzzyIndex index = new FuzzyIndex();
+        index.mode = Mode.values()[buf.getInt(8)];
+        index.count = buf.getInt(12);
+        index.maxLength = buf.getInt(16);
+        int charCount = buf.getInt(20);
+        int trieNodes = buf.getInt(24);
+        int bkNodes = buf.getInt(28);
+        int bkEdges = buf.getInt(32);
+
+        int pos = HEADER_INTS * 4;
+        index.offsets = intSection(buf, pos, index.count + 1);
+        pos += 4 * (index.count + 1);
+        index.chars = charSection(buf, pos, charCount);
+        pos += padded(charCount);
+        if (index.mode == Mode.TRIE) {
+            index.trieLabel = charSection(buf, pos, trieNodes);
+            pos += padded(trieNodes);
+            index.trieWord = intSection(buf, pos, trieNodes);
+            pos += 4 * trieNodes;
+            index.trieEnd = intSection(buf, pos, trieNodes);
+            pos += 4 * trieNodes;
+            index.trieDepth = intSection(buf, pos, trieNodes);
+        } else {
+            index.bkWord = intSection(buf, pos, bkNodes);
+            pos += 4 * bkNodes;
+            index.bkChildStart = intSection(buf, pos, bkNodes + 1);
+            pos += 4 * (bkNodes + 1);
+            index.bkChildDist = intSection(buf, pos, bkEdges);
+            pos += 4 * bkEdges;
+            index.bkChild = intSection(buf, pos, bkEdges);
+        }
+        return index;
+    }
+
+    private static void writeInts(DataOutputStream out, IntBuffer ints) throws IOException {
+        for (int i = 0; i < ints.capacity(); i++) out.writeInt(ints.get(i));
+    }
+
+    private static void writeChars(DataOutputStream out, CharBuffer chars) throws IOException {
+        for (int i = 0; i < chars.capacity(); i++) out.writeChar(chars.get(i));
+        if (chars.capacity() % 2 != 0) out.writeChar(0);
+    }
+
+    // Bytes taken by n chars, rounded up to a multiple of 4
+    private static int padded(int n) {
+        return 2 * (n + (n & 1));
+    }
+
+    private static IntBuffer intSection(ByteBuffer buf, int pos, int n) {
+        ByteBuffer section = buf.duplicate();
+        section.position(pos);
+        section.limit(pos + 4 * n);
+        return section.slice().asIntBuffer();
+    }
+
+    private static CharBuffer charSection(ByteBuffer buf, int pos, int n) {
+        ByteBuffer section = buf.duplicate();
+        section.position(pos);
+        section.limit(pos + 2 * n);
+        return section.slice().asCharBuffer();
+    }
+
+    // Growable int array used while building
+    private static class IntList {
+        private int[] data = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        private void set(int i, int value) {
+            data[i] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) throws IOException {
+        String[] animals = {"CAT", "DOG", "CART", "BAT", "COAT", "CAT"};
+        // Sorted and deduplicated: BAT, CART, CAT, COAT, DOG
+        (new TestCase(animals, "CAT", 1,
+                      new long[]{BatchEditDistance.pack(0, 2), BatchEditDistance.pack(1, 0),
+                                 BatchEditDistance.pack(1, 1), BatchEditDistance.pack(1, 3)},
+                      2, new long[]{BatchEditDistance.pack(0, 2), BatchEditDistance.pack(1, 0)})).run();
+        (new TestCase(new String[]{}, "CAT", 1, new long[]{}, 2, new long[]{})).run();
+        (new TestCase(new String[]{"", "A"}, "", 0,
+                      new long[]{BatchEditDistance.pack(0, 0)},
+                      5, new long[]{BatchEditDistance.pack(0, 0), BatchEditDistance.pack(1, 1)})).run();
+
+        // Enough words that the BK-tree is built in parallel. Compare against
+        // scanning every word with BatchEditDistance
+        Random r = new Random(0);
+        String[] words = new String[20000];
+        for (int i = 0; i < words.length; i++) words[i] = randomString(r, 3 + r.nextInt(6), 4);
+        String[] unique = Arrays.stream(words).distinct().sorted().toArray(String[]::new);
+        for (int i = 0; i < 5; i++) {
+            String query = randomString(r, 3 + r.nextInt(6), 4);
+            BatchEditDistance batch = new BatchEditDistance(query);
+            (new TestCase(words, query, 2, batch.withinDistance(unique, 2),
+                          20, batch.nearest(unique, 20))).run();
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private String[] words;
+        private String query;
+        private int k;
+        private long[] within;
+        private int count;
+        private long[] nearest;
+
+        private TestCase(String[] words, String query, int k, long[] within,
+                         int count, long[] nearest) {
+            this.words = words;
+            this.query = query;
+            this.k = k;
+            this.within = within;
+            this.count = count;
+            this.nearest = nearest;
+        }
+
+        private void run() throws IOException {
+            for (Mode mode : Mode.values()) {
+                FuzzyIndex built = build(words, mode);
+                Path file = Files.createTempFile("fuzzy", ".idx");
+                try {
+                    built.save(file);
+                    FuzzyIndex loaded = load(file);
+                    for (FuzzyIndex index : new FuzzyIndex[]{built, loaded}) {
+                        assert Arrays.equals(index.within(query, k), within):
+                            mode + " within failed for query = " + query + ", k = " + k;
+                        assert Arrays.equals(index.nearest(query, count), nearest):
+                            mode + " nearest failed for query = " + query + ", count = " + count;
+                    }
+                } finally {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
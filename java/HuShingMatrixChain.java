@@ -0,0 +1,381 @@
+/*
+ * Title: Hu-Shing Matrix Chain
+ * Date: 10/18/2026
+ *
+ * Find the cost of the cheapest way to multiply a chain of matrices, like
+ * MatrixChainMultiplication, in O(n log n) instead of O(n^3), plus an O(n)
+ * approximation that is never more than 15.5% too expensive.
+ *
+ * eg.
+ * dims = {40, 20, 30, 10, 30}, ie. [40x20][20x30][30x10][10x30]
+ * exactCost(dims) = 26000
+ * approximateCost(dims) = 26000
+ *
+ * This follows Hu and Shing, "Computation of Matrix Chain Products". Put the
+ * n + 1 dimensions around a polygon. Multiplying (i..k) by (k + 1..j) costs
+ * dims[i] * dims[k + 1] * dims[j + 1], which is the product of the corners
+ * of a triangle, so a grouping of the chain is a triangulation of the polygon
+ * and its cost is the sum over its triangles.
+ *
+ * Rotate the polygon so the smallest corner V is first. Call a diagonal
+ * between corners i and j a potential h-arc if every corner between them is
+ * bigger than both. These never cross, so they form a tree, and every corner
+ * x gives exactly one of them: from the nearest smaller corner on its left
+ * to the nearest smaller corner on its right. One pass with a stack finds
+ * them all, like finding nearest smaller values.
+ *
+ * Hu and Shing show there's a cheapest triangulation that only uses some of
+ * those arcs, and in between them it's a fan: every triangle shares the
+ * smallest corner of its piece. So the only question is which arcs to keep.
+ * For an arc h = (i, j), let C(h) be the cost of the polygon under it when
+ * we keep it, a fan from its smaller end plus whatever arcs below are kept.
+ * If instead the fan from some smaller corner of weight v above h passes
+ * through, the cost under h is F_h(v) = v * (products of the edges under h)
+ * plus the cost of its children with the same v. Keeping h costs
+ * C(h) + v * w_i * w_j. F_h(0) = 0 and F_h grows faster than the straight
+ * line for keeping h, so there's a single weight, the supporting weight of
+ * h, below which we drop h and above which we keep it.
+ *
+ * Every choice is linear in v, so G_h(v) = min(F_h(v), C(h) + v * w_i * w_j)
+ * is concave and piecewise linear with one breakpoint per arc below h that
+ * was decided. We store it as its last line plus a max-heap of breakpoints.
+ * A parent adds its children's functions by adding lines and merging heaps
+ * (leftist heaps, O(log n) per merge), evaluates the sum at its own smaller
+ * corner by popping the breakpoints past it, and then adds its own
+ * breakpoint. Every breakpoint is pushed and popped at most once, so
+ * everything is O(n log n). All lines have whole number coefficients, so we
+ * compare breakpoints exactly with 128 bit products, never with doubles.
+ *
+ * The approximation is Hu and Shing's O(n) heuristic. Sweep around the
+ * polygon from V with a stack. Whenever the top of the stack t is bigger
+ * than both its neighbours s and c, keep the arc (s, c) and cut off t if
+ * that triangle is cheaper than the quadrilateral V, s, t, c would be with
+ * the arc (V, t) instead, ie. if 1/w_s + 1/w_c > 1/w_V + 1/w_t. What's left
+ * on the stack at the end is fanned from V. They proved this is within a
+ * factor 2 / sqrt(3) (about 1.1547) of the optimum.
+ *
+ * Execution: javac HuShingMatrixChain.java && java HuShingMatrixChain
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class HuShingMatrixChain {
+    // Worst case ratio of approximateCost to exactCost
+    public static final double APPROXIMATION_RATIO = 2 / Math.sqrt(3);
+
+    private static final int NIL = -1;
+
+    // Corner weights, rotated so the smallest is first
+    private long[] w;
+
+    // Functions G_h(v) for every arc h: last line A + B * v and a heap of
+    // breakpoints
+    private long[] lineA;
+    private long[] lineB;
+    private int[] heap;
+    private long[] cost;
+    private int[] end;
+
+    // Breakpoints. Crossing breakpoint x to the left adds dA[x] + dB[x] * v
+    // to the line, so it is at v = -dA[x] / dB[x]
+    private long[] dA;
+    private long[] dB;
+    private int[] left;
+    private int[] right;
+    private int[] rank;
+    private int breakpoints;
+
+    private HuShingMatrixChain(int[] dims) {
+        int n = dims.length;
+        int first = 0;
+        for (int i = 1; i < n; i++) {
+            if (dims[i] < dims[first]) first = i;
+        }
+        w = new long[n];
+        for (int i = 0; i < n; i++) w[i] = dims[(first + i) % n];
+    }
+
+    // Cost of the cheapest grouping of the chain where matrix i is
+    // dims[i] x dims[i + 1]
+    public static long exactCost(int[] dims) {
+        ParallelMatrixChain.validate(dims);
+        if (dims.length <= 2) return 0;
+        return new HuShingMatrixChain(dims).exact();
+    }
+
+    // Same as above for the Matrix class
+    public static long exactCost(MatrixChainMultiplication.Matrix[] arr) {
+        return exactCost(ParallelMatrixChain.dims(arr));
+    }
+
+    // Cost of a grouping that is at most APPROXIMATION_RATIO times the
+    // cheapest
+    public static long approximateCost(int[] dims) {
+        ParallelMatrixChain.validate(dims);
+        if (dims.length <= 2) return 0;
+        return new HuShingMatrixChain(dims).approximate();
+    }
+
+    // Same as above for the Matrix class
+    public static long approximateCost(MatrixChainMultiplication.Matrix[] arr) {
+        return approximateCost(ParallelMatrixChain.dims(arr));
+    }
+
+    // Order of corners. Ties go to the earlier corner so the smallest is
+    // always corner 0
+    private boolean less(int x, int y) {
+        return w[x] < w[y] || (w[x] == w[y] && x < y);
+    }
+
+    private long exact() {
+        int N = w.length - 1;
+        int arcs = Math.max(0, N - 1);
+        lineA = new long[arcs];
+        lineB = new long[arcs];
+        heap = new int[arcs];
+        cost = new long[arcs];
+        end = new int[arcs];
+        dA = new long[arcs];
+        dB = new long[arcs];
+        left = new int[arcs];
+        right = new int[arcs];
+        rank = new int[arcs];
+
+        // lastArc[p] is the longest arc found so far that starts at p. Arcs
+        // are found children first, so when we find (s, j), lastArc[p] for
+        // p in [s, j) is the child of (s, j) that starts at p, if any
+        int[] lastArc = new int[N + 1];
+        Arrays.fill(lastArc, NIL);
+        int[] stack = new int[N + 1];
+        int top = 0;
+        stack[top++] = 0;
+        int count = 0;
+        for (int j = 1; j <= N; j++) {
+            // Every corner popped is bigger than both its neighbours on the
+            // stack, which are its nearest smaller corners
+            while (less(j, stack[top - 1])) {
+                top--;
+                int s = stack[top - 1];
+                int h = count++;
+                end[h] = j;
+                decide(h, s, j, lastArc);
+                lastArc[s] = h;
+            }
+            stack[top++] = j;
+        }
+        // The whole polygon is a fan from corner 0
+        return decide(NIL, 0, N, lastArc);
+    }
+
+    // Compute C(h) for the arc h = (s, j) and replace the children's
+    // functions by G_h. For h = NIL, compute the cost of the whole polygon
+    private long decide(int h, int s, int j, int[] lastArc) {
+        int apex = h == NIL || less(s, j) ? s : j;
+        long v = w[apex];
+
+        // Add up F_h from the edges and children under h. The one edge or
+        // child touching the apex is in F_h, but isn't part of the fan from
+        // the apex, so remember its value to swap it out afterwards
+        int merged = NIL;
+        long A = 0;
+        long B = 0;
+        long touching = 0;
+        long touchingCost = 0;
+        int p = s;
+        while (p < j) {
+            int c = lastArc[p];
+            if (c != NIL) {
+                if ((apex == s && p == s) || (apex == j && end[c] == j)) {
+                    touching = evaluate(c, v);
+                    touchingCost = cost[c];
+                }
+                merged = merge(merged, heap[c]);
+                A += lineA[c];
+                B += lineB[c];
+                p = end[c];
+            } else {
+                long edge = w[p] * w[p + 1];
+                if ((apex == s && p == s) || (apex == j && p + 1 == j)) touching = v * edge;
+                B += edge;
+                p++;
+            }
+        }
+
+        // Nothing above h has a smaller apex, so breakpoints past v are never
+        // needed again
+        while (merged != NIL && after(merged, v)) {
+            A += dA[merged];
+            B += dB[merged];
+            merged = pop(merged);
+        }
+        long C = A + B * v - touching + touchingCost;
+        if (h == NIL) return C;
+        cost[h] = C;
+
+        // G_h = min(F_h, C + v * w_s * w_j). F_h is below at 0 and grows
+        // faster, so they cross once. Find the piece of F_h where they do
+        long slope = w[s] * w[j];
+        while (true) {
+            long rise = C - A;
+            long run = B - slope;
+            if (merged == NIL || (rise >= 0 && compare(rise, dB[merged], -dA[merged], run) >= 0)) break;
+            A += dA[merged];
+            B += dB[merged];
+            merged = pop(merged);
+        }
+        int x = breakpoints++;
+        dA[x] = A - C;
+        dB[x] = B - slope;
+        left[x] = NIL;
+        right[x] = NIL;
+        rank[x] = 1;
+        heap[h] = merge(merged, x);
+        lineA[h] = C;
+        lineB[h] = slope;
+        return C;
+    }
+
+    // G_h(v), dropping breakpoints past v
+    private long evaluate(int h, long v) {
+        while (heap[h] != NIL && after(heap[h], v)) {
+            lineA[h] += dA[heap[h]];
+            lineB[h] += dB[heap[h]];
+            heap[h] = pop(heap[h]);
+        }
+        return lineA[h] + lineB[h] * v;
+    }
+
+    // Whether breakpoint x is past v, ie. -dA[x] / dB[x] > v
+    private boolean after(int x, long v) {
+        return compare(-dA[x], 1, v, dB[x]) > 0;
+    }
+
+    // Merge two leftist max-heaps of breakpoints
+    private int merge(int x, int y) {
+        if (x == NIL) return y;
+        if (y == NIL) return x;
+        // Position of y > position of x
+        if (compare(-dA[y], dB[x], -dA[x], dB[y]) > 0) {
+            int swap = x;
+            x = y;
+            y = swap;
+        }
+        right[x] = merge(right[x], y);
+        if (left[x] == NIL || rank[left[x]] < rank[right[x]]) {
+            int swap = left[x];
+            left[x] = right[x];
+            right[x] = swap;
+        }
+        rank[x] = right[x] == NIL ? 1 : rank[right[x]] + 1;
+        return x;
+    }
+
+    private int pop(int x) {
+        return merge(left[x], right[x]);
+    }
+
+    // Compare a * b with c * d for non-negative longs without overflow
+    static int compare(long a, long b, long c, long d) {
+        long high = Math.multiplyHigh(a, b);
+        long otherHigh = Math.multiplyHigh(c, d);
+        if (high != otherHigh) return Long.compare(high, otherHigh);
+        return Long.compareUnsigned(a * b, c * d);
+    }
+
+    private long approximate() {
+        int N = w.length - 1;
+        long first = w[0];
+        int[] stack = new int[N + 1];
+        int top = 0;
+        stack[top++] = 0;
+        long total = 0;
+        // Corner 0 again at the end closes the polygon
+        for (int step = 1; step <= N + 1; step++) {
+            int c = step == N + 1 ? 0 : step;
+            while (top >= 3) {
+                int t = stack[top - 1];
+                int s = stack[top - 2];
+                if (w[t] < w[s] || w[t] < w[c]) break;
+                // 1/w_s + 1/w_c > 1/w_V + 1/w_t, multiplied out
+                if (compare(w[s] * w[c], first + w[t], first * w[t], w[s] + w[c]) >= 0) break;
+                total += w[s] * w[t] * w[c];
+                top--;
+            }
+            if (c != 0) stack[top++] = c;
+        }
+        for (int k = 1; k + 1 < top; k++) total += first * w[stack[k]] * w[stack[k + 1]];
+        return total;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase(new int[]{40, 20, 30, 10, 30}, 26000)).run();
+        (new TestCase(new int[]{40, 20}, 0)).run();
+        (new TestCase(new int[]{10, 20, 30}, 6000)).run();
+        (new TestCase(new int[]{10, 20, 30, 40, 30}, 30000)).run();
+        (new TestCase(new int[]{5, 5, 5, 5, 5, 5}, 500)).run();
+        // The heuristic's worst case is close to 2 / sqrt(3)
+        (new TestCase(new int[]{1, 1, 3, 3, 1}, 13)).run();
+        assert approximateCost(new int[]{1, 1, 3, 3, 1}) == 15 : "approximateCost failed";
+
+        // Against brute force and the cubic solutions, with lots of ties
+        Random r = new Random(0);
+        for (int t = 0; t < 3000; t++) {
+            MatrixChainMultiplication.Matrix[] arr = new MatrixChainMultiplication.Matrix[1 + r.nextInt(10)];
+            int range = new int[]{2, 5, 30, 500}[r.nextInt(4)];
+            int rows = 1 + r.nextInt(range);
+            for (int i = 0; i < arr.length; i++) {
+                int cols = 1 + r.nextInt(range);
+                arr[i] = new MatrixChainMultiplication.Matrix(rows, cols);
+                rows = cols;
+            }
+            long expected = arr.length <= 7
+                ? MatrixChainMultiplication.bruteForceMCM(arr)
+                : MatrixChainMultiplication.bottomUpMCM(arr);
+            (new TestCase(ParallelMatrixChain.dims(arr), expected)).run();
+        }
+        ParallelMatrixChain cubic = new ParallelMatrixChain();
+        for (int t = 0; t < 20; t++) {
+            int[] dims = new int[2 + r.nextInt(400)];
+            int range = new int[]{3, 100, 100000}[r.nextInt(3)];
+            for (int i = 0; i < dims.length; i++) dims[i] = 1 + r.nextInt(range);
+            (new TestCase(dims, cubic.solve(dims).cost())).run();
+        }
+
+        // Long chains the cubic solutions can't do, including sorted ones
+        // where the tree of arcs is a single path
+        int[] random = new int[200001];
+        int[] sorted = new int[200001];
+        for (int i = 0; i < random.length; i++) {
+            random[i] = 1 + r.nextInt(1000);
+            sorted[i] = 1 + i / 200;
+        }
+        for (int[] dims : new int[][]{random, sorted}) {
+            long exact = exactCost(dims);
+            long approximate = approximateCost(dims);
+            assert exact <= approximate && approximate <= exact * APPROXIMATION_RATIO:
+                "approximateCost failed for a long chain";
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private int[] dims;
+        private long output;
+
+        private TestCase(int[] dims, long output) {
+            this.dims = dims;
+            this.output = output;
+        }
+
+        private void run() {
+            assert exactCost(dims) == output:
+                "exactCost failed on " + Arrays.toString(dims);
+            long approximate = approximateCost(dims);
+            assert output <= approximate && approximate <= output * APPROXIMATION_RATIO:
+                "approximateCost failed on " + Arrays.toString(dims);
+        }
+    }
+}
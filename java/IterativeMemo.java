@@ -0,0 +1,212 @@
+/*
+ * Title: Iterative Memo
+ * Date: 10/18/2026
+ *
+ * Run a top-down (memoized) dynamic programming solution without recursion,
+ * so that it can't overflow the call stack.
+ *
+ * eg.
+ * MakingChange.topDownChange(10000000) with coins {25, 10, 5, 1} first
+ * recurses 10000000 -> 9999975 -> ... -> 0, 400000 calls deep, which throws
+ * StackOverflowError with the default thread stack size.
+ *
+ * Every top-down solution in this directory has the same shape. A state
+ * (eg. n, or (i, W)) is a base case, or its value is built up from the values
+ * of a list of smaller states, one at a time. A Recurrence describes that
+ * shape and this class drives it with an explicit stack of frames held in
+ * primitive arrays: the state, how many of its subproblems are done and the
+ * value accumulated so far. The stack grows as needed on the heap.
+ *
+ * Subproblems are visited in the same order as the recursive version and
+ * only when needed, so we still only compute the states that are actually
+ * reachable from the one we ask for. statesComputed() against denseSize()
+ * shows what fraction of the full table that was.
+ *
+ * States are longs. With a dense table they're indices into an array of
+ * denseSize values; with a MemoTable they can be anything, eg.
+ * MemoTable.key(i, sum).
+ *
+ * Execution: javac IterativeMemo.java && java IterativeMemo
+ */
+
+import java.util.Arrays;
+
+public class IterativeMemo {
+    // Returned by Recurrence.subproblem when there are no more subproblems
+    public static final long NONE = Long.MIN_VALUE;
+    // Marks a state that hasn't been computed. Values must never be this
+    private static final long MISSING = Long.MIN_VALUE;
+
+    // Describes a top-down solution. For state s we call start(s), then
+    // subproblem(s, 0), subproblem(s, 1), ... until it returns NONE, folding
+    // the value v_k of each subproblem in with acc = combine(s, k, acc, v_k).
+    // The value of s is finish(s, acc). A base case just returns NONE right
+    // away
+    public interface Recurrence {
+        long subproblem(long state, int k);
+
+        long combine(long state, int k, long acc, long value);
+
+        default long start(long state) {
+            return 0;
+        }
+
+        default long finish(long state, long acc) {
+            return acc;
+        }
+    }
+
+    private Recurrence recurrence;
+    private long denseSize;
+    // Exactly one of these is used
+    private long[] dense;
+    private MemoTable memo;
+
+    // Explicit stack
+    private long[] states = new long[64];
+    private long[] accs = new long[64];
+    private int[] next = new int[64];
+
+    private long statesComputed;
+    private int maxDepth;
+
+    // Store values in an array. Every state must be in [0, denseSize)
+    public IterativeMemo(Recurrence recurrence, int denseSize) {
+        if (denseSize < 0) throw new IllegalArgumentException("denseSize must be non-negative");
+        this.recurrence = recurrence;
+        this.denseSize = denseSize;
+        this.dense = new long[denseSize];
+        Arrays.fill(dense, MISSING);
+    }
+
+    // Store values in memo. denseSize is only used for reporting, since the
+    // states don't need to be dense
+    public IterativeMemo(Recurrence recurrence, MemoTable memo, long denseSize) {
+        this.recurrence = recurrence;
+        this.memo = memo;
+        this.denseSize = denseSize;
+    }
+
+    // Value of state. Values computed by earlier calls are reused
+    public long solve(long state) {
+        long cached = lookup(state);
+        if (cached != MISSING) return cached;
+
+        int depth = 0;
+        push(state, depth++);
+        long value = 0;
+        while (depth > 0) {
+            int top = depth - 1;
+            long s = states[top];
+            int k = next[top];
+            long sub = recurrence.subproblem(s, k);
+            if (sub != NONE) {
+                cached = lookup(sub);
+                if (cached == MISSING) {
+                    push(sub, depth++);
+                } else {
+                    accs[top] = recurrence.combine(s, k, accs[top], cached);
+                    next[top] = k + 1;
+                }
+                continue;
+            }
+
+            // Every subproblem is done
+            value = recurrence.finish(s, accs[top]);
+            store(s, value);
+            statesComputed++;
+            depth--;
+            if (depth > 0) {
+                int parent = depth - 1;
+                accs[parent] = recurrence.combine(states[parent], next[parent], accs[parent], value);
+                next[parent]++;
+            }
+        }
+        return value;
+    }
+
+    // Number of states computed so far, across every call to solve
+    public long statesComputed() {
+        return statesComputed;
+    }
+
+    // Size of the full table the recursive version would allocate
+    public long denseSize() {
+        return denseSize;
+    }
+
+    // Deepest the stack has been, ie. how deep the recursion would have gone
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    private void push(long state, int depth) {
+        if (depth == states.length) {
+            states = Arrays.copyOf(states, depth * 2);
+            accs = Arrays.copyOf(accs, depth * 2);
+            next = Arrays.copyOf(next, depth * 2);
+        }
+        states[depth] = state;
+        accs[depth] = recurrence.start(state);
+        next[depth] = 0;
+        maxDepth = Math.max(maxDepth, depth + 1);
+    }
+
+    private long lookup(long state) {
+        if (dense != null) return dense[(int) state];
+        return memo.get(state, MISSING);
+    }
+
+    private void store(long state, long value) {
+        if (value == MISSING) throw new IllegalStateException("Long.MIN_VALUE can't be stored");
+        if (dense != null) dense[(int) state] = value;
+        else memo.put(state, value);
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        // Number of paths from (0, 0) to (r, c) moving down or right, with
+        // states packed into a MemoTable key
+        Recurrence paths = new Recurrence() {
+            public long subproblem(long state, int k) {
+                int r = (int) (state >> 32);
+                int c = (int) state;
+                if (r == 0 || c == 0 || k == 2) return NONE;
+                return k == 0 ? MemoTable.key(r - 1, c) : MemoTable.key(r, c - 1);
+            }
+
+            public long combine(long state, int k, long acc, long value) {
+                return acc + value;
+            }
+
+            public long finish(long state, long acc) {
+                int r = (int) (state >> 32);
+                int c = (int) state;
+                return r == 0 || c == 0 ? 1 : acc;
+            }
+        };
+        IterativeMemo grid = new IterativeMemo(paths, new MemoTable(), 11 * 11);
+        // Every state but (0, 0) is reachable
+        assert grid.solve(MemoTable.key(10, 10)) == 184756 : "solve failed for paths";
+        assert grid.statesComputed() == 120 : "statesComputed failed for paths";
+        // Everything is cached now
+        assert grid.solve(MemoTable.key(5, 5)) == 252 && grid.statesComputed() == 120:
+            "solve failed to reuse cached states";
+
+        // Far deeper than the call stack allows: f(n) = f(n - 1) + 1
+        Recurrence chain = new Recurrence() {
+            public long subproblem(long state, int k) {
+                return state == 0 || k == 1 ? NONE : state - 1;
+            }
+
+            public long combine(long state, int k, long acc, long value) {
+                return value + 1;
+            }
+        };
+        int n = 5_000_000;
+        IterativeMemo deep = new IterativeMemo(chain, n + 1);
+        assert deep.solve(n) == n : "solve failed for a deep chain";
+        assert deep.maxDepth() == n + 1 : "maxDepth failed for a deep chain";
+        System.out.println("Passed all test cases");
+    }
+}
@@ -105,6 +105,58 @@ public class Knapsack {
         return toReturn;
     }
     
+    // Top-down dynamic solution. MemoTable-based caching. Works like the
+    // HashMap version, but the (i, W) state is packed into one long and
+    // nothing is boxed
+    public static int topDownKnapsackMemo(Item[] items, int W) {
+        return topDownKnapsackMemo(items, W, new MemoTable());
+    }
+    
+    // Use the given table, eg. one with a maximum size
+    public static int topDownKnapsackMemo(Item[] items, int W, MemoTable memo) {
+        return topDownKnapsackMemo(items, W, 0, memo);
+    }
+    
+    // Overloaded recursive function
+    private static int topDownKnapsackMemo(Item[] items, int W, int i, MemoTable memo) {
+        if (i == items.length) return 0;
+        long key = MemoTable.key(i, W);
+        long cached = memo.get(key, -1);
+        if (cached != -1) return (int) cached;
+        
+        int toReturn = topDownKnapsackMemo(items, W, i+1, memo);
+        if (W - items[i].weight >= 0) {
+            toReturn = Math.max(toReturn, 
+                                topDownKnapsackMemo(items, W - items[i].weight, i+1, memo) 
+                                    + items[i].value);
+        }
+        memo.put(key, toReturn);
+        return toReturn;
+    }
+    
+    // Top-down dynamic solution driven by IterativeMemo, so many items can't
+    // overflow the stack. Uses the same (i, W) keys as topDownKnapsackMemo
+    public static int topDownKnapsackIterative(Item[] items, int W) {
+        IterativeMemo.Recurrence knapsack = new IterativeMemo.Recurrence() {
+            // Subproblem 0 skips item i, subproblem 1 includes it
+            public long subproblem(long state, int k) {
+                int i = (int) (state >> 32);
+                int w = (int) state;
+                if (i == items.length || k == 2) return IterativeMemo.NONE;
+                if (k == 0) return MemoTable.key(i + 1, w);
+                if (w - items[i].weight < 0) return IterativeMemo.NONE;
+                return MemoTable.key(i + 1, w - items[i].weight);
+            }
+            
+            public long combine(long state, int k, long acc, long value) {
+                if (k == 0) return value;
+                return Math.max(acc, value + items[(int) (state >> 32)].value);
+            }
+        };
+        return (int) new IterativeMemo(knapsack, new MemoTable(), (long) items.length * (W + 1))
+            .solve(MemoTable.key(0, W));
+    }
+    
     // Bottom-up dynamic solution.
     public static int bottomUpKnapsack(Item[] items, int W) {
         if (items.length == 0 || W == 0) return 0;
@@ -126,16 +178,16 @@ public class Knapsack {
         return dp[items.length][W];
     }
     
-    // Space-optimized bottom-up dynamic solution
+    // Space-optimized bottom-up dynamic solution. Row i only depends on row
+    // i-1, and dp[j] only reads dp[j - weight] to its left, so we can update a
+    // single row in place as long as we go from right to left. Weights below
+    // the item's weight never change, so we stop there
     public static int bottomUpKnapsackSpaceOptimized(Item[] items, int W) {
         int[] dp = new int[W + 1];
         for (Item i : items) {
-            int[] newDp = new int[W + 1];
-            for (int j = 0; j <= W; j++) {
-                if (i.weight > j) newDp[j] = dp[j];
-                else newDp[j] = Math.max(dp[j], dp[j - i.weight] + i.value);
+            for (int j = W; j >= i.weight; j--) {
+                dp[j] = Math.max(dp[j], dp[j - i.weight] + i.value);
             }
-            dp = newDp;
         }
         
         return dp[W];
@@ -183,6 +235,12 @@ public class Knapsack {
                 "topDownKnapsack failed for items = " + itemsString() + ", weight = " + weight;
             assert topDownKnapsackHashMap(items, weight) == output:
                 "topDownKnapsackHashMap failed for items = " + itemsString() + ", weight = " + weight;
+            assert topDownKnapsackMemo(items, weight) == output:
+                "topDownKnapsackMemo failed for items = " + itemsString() + ", weight = " + weight;
+            assert topDownKnapsackMemo(items, weight, new MemoTable(0, 0.5f, 2)) == output:
+                "topDownKnapsackMemo with eviction failed for items = " + itemsString() + ", weight = " + weight;
+            assert topDownKnapsackIterative(items, weight) == output:
+                "topDownKnapsackIterative failed for items = " + itemsString() + ", weight = " + weight;
             assert bottomUpKnapsack(items, weight) == output:
                 "bottomUpKnapsack failed for items = " + itemsString() + ", weight = " + weight;
             assert bottomUpKnapsackSpaceOptimized(items, weight) == output:
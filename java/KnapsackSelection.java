@@ -0,0 +1,266 @@
+/*
+ * Title: Knapsack Selection
+ * Date: 10/18/2026
+ *
+ * Given the same input as Knapsack, find not just the maximum value but
+ * which items to take to get it.
+ *
+ * eg.
+ * weights = {1, 2, 3}, values = {6, 10, 12}
+ * maxWeight = 5
+ * compute(weights, values, maxWeight).items() = {1, 2} (value 22, weight 5)
+ *
+ * Walking back through Knapsack.bottomUpKnapsack's table finds the items, but
+ * the table is an int per cell. All the walk actually needs is whether each
+ * item was included at each capacity, so we run the one row dp from
+ * ParallelKnapsack and record just that decision as one bit per cell. That
+ * is 32 times smaller than the int table.
+ *
+ * When even the bits don't fit we fall back to a divide and conquer in the
+ * style of Hirschberg's algorithm (see EditScript). Split the items in half
+ * and compute the best value for every capacity using only the first half,
+ * and using only the second half. Some capacity c maximizes
+ * first[c] + second[W - c]; the optimal solution gives c to the first half
+ * and W - c to the second, so we recurse on each half with its own capacity.
+ * Only O(W) values are alive at once, and the total work is still O(n * W)
+ * since each level of the recursion does at most half the work of the one
+ * above it.
+ *
+ * Execution: javac KnapsackSelection.java && java KnapsackSelection
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class KnapsackSelection {
+    // Largest decision matrix compute() will allocate before falling back to
+    // the linear space algorithm
+    public static final long DEFAULT_MAX_BITSET_BYTES = 1L << 28;
+    // Subproblems with at most this many cells use the bitset even in the
+    // linear space algorithm
+    private static final long BASE_CELLS = 1 << 16;
+
+    private int[] items;
+    private int value;
+    private int weight;
+
+    private KnapsackSelection(int[] weights, int[] values, int[] items) {
+        this.items = items;
+        for (int i : items) {
+            value += values[i];
+            weight += weights[i];
+        }
+    }
+
+    // Pick whichever algorithm fits in DEFAULT_MAX_BITSET_BYTES
+    public static KnapsackSelection compute(int[] weights, int[] values, int W) {
+        return compute(weights, values, W, DEFAULT_MAX_BITSET_BYTES);
+    }
+
+    public static KnapsackSelection compute(int[] weights, int[] values, int W, long maxBitsetBytes) {
+        validate(weights, values, W);
+        long bytes = ((long) weights.length * (W + 1) + 63) / 64 * 8;
+        if (bytes <= maxBitsetBytes) return computeBitset(weights, values, W);
+        return computeLinearSpace(weights, values, W);
+    }
+
+    public static KnapsackSelection compute(Knapsack.Item[] items, int W) {
+        int[] weights = new int[items.length];
+        int[] values = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            weights[i] = items[i].weight;
+            values[i] = items[i].value;
+        }
+        return compute(weights, values, W);
+    }
+
+    // Keep one decision bit per (item, capacity)
+    public static KnapsackSelection computeBitset(int[] weights, int[] values, int W) {
+        validate(weights, values, W);
+        int[] all = new int[weights.length];
+        for (int i = 0; i < all.length; i++) all[i] = i;
+        int[] chosen = new int[weights.length];
+        int count = selectBitset(weights, values, all, 0, all.length, W, chosen, 0);
+        return new KnapsackSelection(weights, values, Arrays.copyOf(chosen, count));
+    }
+
+    // O(W) memory divide and conquer
+    public static KnapsackSelection computeLinearSpace(int[] weights, int[] values, int W) {
+        validate(weights, values, W);
+        // Items heavier than W can never be taken, so drop them up front
+        int[] order = new int[weights.length];
+        int n = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= W) order[n++] = i;
+        }
+        int[] chosen = new int[n];
+        int count = selectLinearSpace(weights, values, order, 0, n, W, chosen, 0);
+        int[] items = Arrays.copyOf(chosen, count);
+        Arrays.sort(items);
+        return new KnapsackSelection(weights, values, items);
+    }
+
+    // Indices of the chosen items, in increasing order
+    public int[] items() {
+        return items.clone();
+    }
+
+    // Total value of the chosen items, equal to the knapsack optimum
+    public int value() {
+        return value;
+    }
+
+    // Total weight of the chosen items
+    public int weight() {
+        return weight;
+    }
+
+    private static void validate(int[] weights, int[] values, int W) {
+        if (weights.length != values.length) {
+            throw new IllegalArgumentException("weights and values must have the same length");
+        }
+        if (W < 0) throw new IllegalArgumentException("W must be non-negative");
+        for (int w : weights) {
+            if (w < 0) throw new IllegalArgumentException("weights must be non-negative");
+        }
+    }
+
+    // Choose from order[lo..hi) with capacity W using a decision bitset.
+    // Writes the chosen items to chosen[count..] in increasing order of
+    // position in order, and returns the new count
+    private static int selectBitset(int[] weights, int[] values, int[] order, int lo, int hi,
+                                    int W, int[] chosen, int count) {
+        int n = hi - lo;
+        long width = W + 1;
+        long words = (n * width + 63) >>> 6;
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("too many cells for a bitset, use computeLinearSpace");
+        }
+        long[] taken = new long[(int) words];
+        int[] dp = new int[W + 1];
+        for (int k = 0; k < n; k++) {
+            int i = order[lo + k];
+            int w = weights[i];
+            int v = values[i];
+            long row = k * width;
+            for (int j = W; j >= w; j--) {
+                int include = dp[j - w] + v;
+                if (include > dp[j]) {
+                    dp[j] = include;
+                    long bit = row + j;
+                    taken[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        // Walk back from the last item, then reverse to get increasing order
+        int start = count;
+        int j = W;
+        for (int k = n - 1; k >= 0; k--) {
+            long bit = k * width + j;
+            if ((taken[(int) (bit >>> 6)] & (1L << bit)) != 0) {
+                chosen[count++] = order[lo + k];
+                j -= weights[order[lo + k]];
+            }
+        }
+        for (int a = start, b = count - 1; a < b; a++, b--) {
+            int swap = chosen[a];
+            chosen[a] = chosen[b];
+            chosen[b] = swap;
+        }
+        return count;
+    }
+
+    private static int selectLinearSpace(int[] weights, int[] values, int[] order, int lo, int hi,
+                                         int W, int[] chosen, int count) {
+        int n = hi - lo;
+        if (n == 0) return count;
+        if (n == 1 || (long) n * (W + 1) <= BASE_CELLS) {
+            return selectBitset(weights, values, order, lo, hi, W, chosen, count);
+        }
+
+        int mid = lo + n / 2;
+        int[] first = bestValues(weights, values, order, lo, mid, W);
+        int[] second = bestValues(weights, values, order, mid, hi, W);
+        int split = 0;
+        for (int c = 1; c <= W; c++) {
+            if (first[c] + second[W - c] > first[split] + second[W - split]) split = c;
+        }
+        // Let the rows be collected before we recurse
+        first = null;
+        second = null;
+
+        count = selectLinearSpace(weights, values, order, lo, mid, split, chosen, count);
+        return selectLinearSpace(weights, values, order, mid, hi, W - split, chosen, count);
+    }
+
+    // dp[c] = best value of order[lo..hi) with weight at most c
+    private static int[] bestValues(int[] weights, int[] values, int[] order, int lo, int hi, int W) {
+        int[] dp = new int[W + 1];
+        for (int k = lo; k < hi; k++) {
+            int i = order[k];
+            if (weights[i] <= W) ParallelKnapsack.update(dp, weights[i], values[i], W);
+        }
+        return dp;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase(new int[]{}, new int[]{}, 0, new int[]{})).run();
+        (new TestCase(new int[]{1, 2, 3}, new int[]{6, 10, 12}, 5, new int[]{1, 2})).run();
+        (new TestCase(new int[]{4, 1, 2, 3, 2, 2}, new int[]{5, 8, 4, 0, 5, 3}, 3, new int[]{1, 4})).run();
+        (new TestCase(new int[]{4, 1, 2, 3, 2, 2}, new int[]{5, 8, 4, 0, 5, 3}, 8, new int[]{1, 2, 4, 5})).run();
+        (new TestCase(new int[]{10, 20}, new int[]{5, 5}, 5, new int[]{})).run();
+
+        // Large enough to go through several levels of divide and conquer.
+        // There can be many optimal selections, so only check that the
+        // selection fits and is optimal
+        Random r = new Random(0);
+        for (int t = 0; t < 30; t++) {
+            int n = r.nextInt(200);
+            int W = r.nextInt(3000);
+            int[] weights = new int[n];
+            int[] values = new int[n];
+            Knapsack.Item[] items = new Knapsack.Item[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = r.nextInt(100);
+                values[i] = r.nextInt(100);
+                items[i] = new Knapsack.Item(weights[i], values[i]);
+            }
+            int optimum = Knapsack.bottomUpKnapsackSpaceOptimized(items, W);
+            for (KnapsackSelection selection : new KnapsackSelection[]{
+                     computeBitset(weights, values, W), computeLinearSpace(weights, values, W),
+                     compute(weights, values, W, 0)}) {
+                assert selection.value() == optimum && selection.weight() <= W:
+                    "compute produced a suboptimal selection for W = " + W;
+                int[] chosen = selection.items();
+                for (int i = 1; i < chosen.length; i++) {
+                    assert chosen[i - 1] < chosen[i] : "items are not in increasing order";
+                }
+            }
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private int[] weights;
+        private int[] values;
+        private int W;
+        private int[] output;
+
+        private TestCase(int[] weights, int[] values, int W, int[] output) {
+            this.weights = weights;
+            this.values = values;
+            this.W = W;
+            this.output = output;
+        }
+
+        private void run() {
+            assert Arrays.equals(computeBitset(weights, values, W).items(), output):
+                "computeBitset failed for weights = " + Arrays.toString(weights) + ", W = " + W;
+            assert Arrays.equals(computeLinearSpace(weights, values, W).items(), output):
+                "computeLinearSpace failed for weights = " + Arrays.toString(weights) + ", W = " + W;
+        }
+    }
+}
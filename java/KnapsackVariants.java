@@ -0,0 +1,415 @@
+/*
+ * Title: Knapsack Variants
+ * Date: 10/18/2026
+ *
+ * Variations on Knapsack:
+ * - Bounded: item i can be taken up to counts[i] times
+ * - Unbounded: every item can be taken any number of times
+ * - Multi-dimensional: each item has a weight in several dimensions (eg. CPU,
+ *   memory and disk) and each dimension has its own capacity
+ *
+ * eg.
+ * weights = {2, 3}, values = {3, 5}, counts = {3, 1}
+ * maxWeight = 7
+ * boundedKnapsack(weights, values, counts, maxWeight) = 11 (2 + 2 + 3)
+ * unboundedKnapsack(weights, values, maxWeight) = 11 (2 + 2 + 3)
+ *
+ * weights = {{1, 3}, {2, 1}, {2, 2}}, values = {4, 3, 5}
+ * capacities = {4, 3}
+ * multiDimensionalKnapsack(weights, values, capacities) = 8 (items 1 and 2)
+ *
+ * All of them run on the same one row dp as ParallelKnapsack:
+ *
+ * Bounded: taking an item up to c times is the same as having separate
+ * items for 1, 2, 4, ... copies of it plus one for whatever is left over,
+ * since every count from 0 to c is a sum of some of those pieces. That turns
+ * one item into O(log c) ordinary 0-1 items instead of c of them.
+ *
+ * Unbounded: we go through the row from left to right instead of right to
+ * left. Then dp[j - weight] already includes the current item, so it can be
+ * taken again.
+ *
+ * Multi-dimensional: the row becomes a table with one axis per dimension,
+ * stored flat in row-major order. Taking an item moves a fixed distance back
+ * in the flat array, and the cells that are too small in some dimension are
+ * skipped by only looping over the cells big enough in every dimension.
+ *
+ * Each variant also has a naive version with a table per item (and nested
+ * arrays for the dimensions), for testing and benchmarking.
+ *
+ * Execution: javac KnapsackVariants.java && java KnapsackVariants
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class KnapsackVariants {
+
+    // Bounded knapsack with binary splitting
+    public static int boundedKnapsack(int[] weights, int[] values, int[] counts, int W) {
+        validate(weights, values.length, counts, W);
+        int[] dp = new int[W + 1];
+        for (int i = 0; i < weights.length; i++) {
+            int left = counts[i];
+            for (int k = 1; left > 0; k *= 2) {
+                int copies = Math.min(k, left);
+                left -= copies;
+                long weight = (long) copies * weights[i];
+                if (weight > W) break;
+                ParallelKnapsack.update(dp, (int) weight, copies * values[i], W);
+            }
+        }
+        return dp[W];
+    }
+
+    // Same as above with long values
+    public static long boundedKnapsack(int[] weights, long[] values, int[] counts, int W) {
+        validate(weights, values.length, counts, W);
+        long[] dp = new long[W + 1];
+        for (int i = 0; i < weights.length; i++) {
+            int left = counts[i];
+            for (int k = 1; left > 0; k *= 2) {
+                int copies = Math.min(k, left);
+                left -= copies;
+                long weight = (long) copies * weights[i];
+                if (weight > W) break;
+                ParallelKnapsack.update(dp, (int) weight, copies * values[i], W);
+            }
+        }
+        return dp[W];
+    }
+
+    // Naive bounded knapsack. Try every count of every item
+    public static int boundedKnapsackNaive(int[] weights, int[] values, int[] counts, int W) {
+        validate(weights, values.length, counts, W);
+        int[][] dp = new int[weights.length + 1][W + 1];
+        for (int i = 1; i <= weights.length; i++) {
+            for (int j = 0; j <= W; j++) {
+                dp[i][j] = dp[i-1][j];
+                for (int k = 1; k <= counts[i-1] && (long) k * weights[i-1] <= j; k++) {
+                    dp[i][j] = Math.max(dp[i][j], dp[i-1][j - k * weights[i-1]] + k * values[i-1]);
+                }
+            }
+        }
+        return dp[weights.length][W];
+    }
+
+    // Unbounded knapsack with a forward pass
+    public static int unboundedKnapsack(int[] weights, int[] values, int W) {
+        validate(weights, values.length, null, W);
+        int[] dp = new int[W + 1];
+        for (int i = 0; i < weights.length; i++) {
+            int w = weights[i];
+            int v = values[i];
+            if (w == 0) {
+                // A weightless item worth something could be taken forever,
+                // and one worth nothing never helps
+                if (v > 0) throw new IllegalArgumentException("unbounded value from a zero weight item");
+                continue;
+            }
+            for (int j = w; j <= W; j++) {
+                int include = dp[j - w] + v;
+                if (include > dp[j]) dp[j] = include;
+            }
+        }
+        return dp[W];
+    }
+
+    public static long unboundedKnapsack(int[] weights, long[] values, int W) {
+        validate(weights, values.length, null, W);
+        long[] dp = new long[W + 1];
+        for (int i = 0; i < weights.length; i++) {
+            int w = weights[i];
+            long v = values[i];
+            if (w == 0) {
+                if (v > 0) throw new IllegalArgumentException("unbounded value from a zero weight item");
+                continue;
+            }
+            for (int j = w; j <= W; j++) {
+                long include = dp[j - w] + v;
+                if (include > dp[j]) dp[j] = include;
+            }
+        }
+        return dp[W];
+    }
+
+    // Naive unbounded knapsack. One row per item, trying every count
+    public static int unboundedKnapsackNaive(int[] weights, int[] values, int W) {
+        validate(weights, values.length, null, W);
+        int[][] dp = new int[weights.length + 1][W + 1];
+        for (int i = 1; i <= weights.length; i++) {
+            for (int j = 0; j <= W; j++) {
+                dp[i][j] = dp[i-1][j];
+                if (weights[i-1] == 0) {
+                    if (values[i-1] > 0) throw new IllegalArgumentException("unbounded value from a zero weight item");
+                    continue;
+                }
+                for (int k = 1; k * weights[i-1] <= j; k++) {
+                    dp[i][j] = Math.max(dp[i][j], dp[i-1][j - k * weights[i-1]] + k * values[i-1]);
+                }
+            }
+        }
+        return dp[weights.length][W];
+    }
+
+    // 0-1 knapsack where weights[i][d] is item i's weight in dimension d
+    public static int multiDimensionalKnapsack(int[][] weights, int[] values, int[] capacities) {
+        int[] counts = new int[weights.length];
+        Arrays.fill(counts, 1);
+        return multiDimensionalKnapsack(weights, values, counts, capacities);
+    }
+
+    // Same as above where item i can be taken up to counts[i] times
+    public static int multiDimensionalKnapsack(int[][] weights, int[] values, int[] counts,
+                                               int[] capacities) {
+        if (weights.length != values.length || weights.length != counts.length) {
+            throw new IllegalArgumentException("weights, values and counts must have the same length");
+        }
+        int dims = capacities.length;
+        if (dims == 0) throw new IllegalArgumentException("need at least one dimension");
+        // strides[d] is the distance in the flat table between cells that
+        // differ by one in dimension d
+        int[] strides = new int[dims];
+        long size = 1;
+        for (int d = dims - 1; d >= 0; d--) {
+            if (capacities[d] < 0) throw new IllegalArgumentException("capacities must be non-negative");
+            strides[d] = (int) size;
+            size *= capacities[d] + 1;
+            if (size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("table too large");
+        }
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i].length != dims) {
+                throw new IllegalArgumentException("every item needs a weight per dimension");
+            }
+            for (int w : weights[i]) {
+                if (w < 0) throw new IllegalArgumentException("weights must be non-negative");
+            }
+            if (counts[i] < 0) throw new IllegalArgumentException("counts must be non-negative");
+        }
+
+        int[] dp = new int[(int) size];
+        int[] piece = new int[dims];
+        for (int i = 0; i < weights.length; i++) {
+            int left = counts[i];
+            for (int k = 1; left > 0; k *= 2) {
+                int copies = Math.min(k, left);
+                left -= copies;
+                boolean fits = true;
+                for (int d = 0; d < dims; d++) {
+                    long w = (long) copies * weights[i][d];
+                    if (w > capacities[d]) fits = false;
+                    else piece[d] = (int) w;
+                }
+                if (!fits) break;
+                update(dp, piece, copies * values[i], capacities, strides);
+            }
+        }
+        return dp[(int) size - 1];
+    }
+
+    // Add one item to the flat table in place. Visits every cell that is at
+    // least piece in each dimension, going backwards through the array so
+    // that the cell we read from hasn't been updated yet
+    private static void update(int[] dp, int[] piece, int value, int[] capacities, int[] strides) {
+        int dims = capacities.length;
+        int offset = 0;
+        for (int d = 0; d < dims; d++) offset += piece[d] * strides[d];
+        int last = dims - 1;
+        int innerLo = piece[last];
+        int innerHi = capacities[last];
+
+        // Coordinates of the outer dimensions, counting down like an odometer
+        int[] coords = capacities.clone();
+        while (true) {
+            int base = 0;
+            for (int d = 0; d < last; d++) base += coords[d] * strides[d];
+            for (int j = base + innerHi; j >= base + innerLo; j--) {
+                int include = dp[j - offset] + value;
+                if (include > dp[j]) dp[j] = include;
+            }
+
+            int d = last - 1;
+            while (d >= 0 && coords[d] == piece[d]) {
+                coords[d] = capacities[d];
+                d--;
+            }
+            if (d < 0) return;
+            coords[d]--;
+        }
+    }
+
+    // Naive two dimensional 0-1 knapsack with a nested table per item
+    public static int twoDimensionalKnapsackNaive(int[][] weights, int[] values, int[] capacities) {
+        int n = weights.length;
+        int[][][] dp = new int[n + 1][capacities[0] + 1][capacities[1] + 1];
+        for (int i = 1; i <= n; i++) {
+            int a = weights[i-1][0];
+            int b = weights[i-1][1];
+            for (int x = 0; x <= capacities[0]; x++) {
+                for (int y = 0; y <= capacities[1]; y++) {
+                    dp[i][x][y] = dp[i-1][x][y];
+                    if (a <= x && b <= y) {
+                        dp[i][x][y] = Math.max(dp[i][x][y], dp[i-1][x-a][y-b] + values[i-1]);
+                    }
+                }
+            }
+        }
+        return dp[n][capacities[0]][capacities[1]];
+    }
+
+    private static void validate(int[] weights, int values, int[] counts, int W) {
+        if (weights.length != values || (counts != null && counts.length != values)) {
+            throw new IllegalArgumentException("weights, values and counts must have the same length");
+        }
+        if (W < 0) throw new IllegalArgumentException("W must be non-negative");
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) throw new IllegalArgumentException("weights must be non-negative");
+            if (counts != null && counts[i] < 0) throw new IllegalArgumentException("counts must be non-negative");
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        int[] weights = {2, 3};
+        int[] values = {3, 5};
+        (new BoundedTestCase(weights, values, new int[]{3, 1}, 7, 11)).run();
+        (new BoundedTestCase(weights, values, new int[]{0, 0}, 7, 0)).run();
+        (new BoundedTestCase(weights, values, new int[]{1, 1}, 7, 8)).run();
+        (new BoundedTestCase(new int[]{}, new int[]{}, new int[]{}, 5, 0)).run();
+        (new UnboundedTestCase(weights, values, 7, 11)).run();
+        (new UnboundedTestCase(weights, values, 9, 15)).run();
+        (new UnboundedTestCase(new int[]{0, 4}, new int[]{0, 1}, 9, 2)).run();
+
+        int[][] multi = {{1, 3}, {2, 1}, {2, 2}};
+        (new MultiTestCase(multi, new int[]{4, 3, 5}, new int[]{4, 3}, 8)).run();
+        (new MultiTestCase(multi, new int[]{4, 3, 5}, new int[]{0, 0}, 0)).run();
+        (new MultiTestCase(new int[][]{{1, 1, 1}, {1, 2, 3}, {3, 1, 1}},
+                           new int[]{1, 5, 4}, new int[]{4, 3, 4}, 9)).run();
+
+        // Random against the naive versions and brute force
+        Random r = new Random(0);
+        for (int t = 0; t < 50; t++) {
+            int n = r.nextInt(12);
+            int W = r.nextInt(200);
+            int[] w = new int[n];
+            int[] v = new int[n];
+            int[] c = new int[n];
+            for (int i = 0; i < n; i++) {
+                w[i] = 1 + r.nextInt(30);
+                v[i] = r.nextInt(100);
+                c[i] = r.nextInt(10);
+            }
+            (new BoundedTestCase(w, v, c, W, boundedKnapsackNaive(w, v, c, W))).run();
+            (new UnboundedTestCase(w, v, W, unboundedKnapsackNaive(w, v, W))).run();
+
+            int dims = 1 + r.nextInt(3);
+            int[][] mw = new int[n][dims];
+            int[] caps = new int[dims];
+            for (int d = 0; d < dims; d++) caps[d] = r.nextInt(20);
+            for (int i = 0; i < n; i++) {
+                for (int d = 0; d < dims; d++) mw[i][d] = r.nextInt(8);
+            }
+            (new MultiTestCase(mw, v, caps, bruteForceMulti(mw, v, caps))).run();
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static int bruteForceMulti(int[][] weights, int[] values, int[] capacities) {
+        int best = 0;
+        for (int mask = 0; mask < 1 << weights.length; mask++) {
+            int[] used = new int[capacities.length];
+            int value = 0;
+            boolean fits = true;
+            for (int i = 0; i < weights.length; i++) {
+                if ((mask & (1 << i)) == 0) continue;
+                value += values[i];
+                for (int d = 0; d < capacities.length; d++) {
+                    used[d] += weights[i][d];
+                    if (used[d] > capacities[d]) fits = false;
+                }
+            }
+            if (fits) best = Math.max(best, value);
+        }
+        return best;
+    }
+
+    // Classes for defining and running test cases
+    private static class BoundedTestCase {
+        private int[] weights;
+        private int[] values;
+        private int[] counts;
+        private int W;
+        private int output;
+
+        private BoundedTestCase(int[] weights, int[] values, int[] counts, int W, int output) {
+            this.weights = weights;
+            this.values = values;
+            this.counts = counts;
+            this.W = W;
+            this.output = output;
+        }
+
+        private void run() {
+            long[] longValues = new long[values.length];
+            for (int i = 0; i < values.length; i++) longValues[i] = values[i];
+            int[][] oneDimension = new int[weights.length][];
+            for (int i = 0; i < weights.length; i++) oneDimension[i] = new int[]{weights[i]};
+            assert boundedKnapsack(weights, values, counts, W) == output:
+                "boundedKnapsack failed for W = " + W;
+            assert boundedKnapsack(weights, longValues, counts, W) == output:
+                "boundedKnapsack (long) failed for W = " + W;
+            assert boundedKnapsackNaive(weights, values, counts, W) == output:
+                "boundedKnapsackNaive failed for W = " + W;
+            assert multiDimensionalKnapsack(oneDimension, values, counts, new int[]{W}) == output:
+                "multiDimensionalKnapsack failed for bounded W = " + W;
+        }
+    }
+
+    private static class UnboundedTestCase {
+        private int[] weights;
+        private int[] values;
+        private int W;
+        private int output;
+
+        private UnboundedTestCase(int[] weights, int[] values, int W, int output) {
+            this.weights = weights;
+            this.values = values;
+            this.W = W;
+            this.output = output;
+        }
+
+        private void run() {
+            long[] longValues = new long[values.length];
+            for (int i = 0; i < values.length; i++) longValues[i] = values[i];
+            assert unboundedKnapsack(weights, values, W) == output:
+                "unboundedKnapsack failed for W = " + W;
+            assert unboundedKnapsack(weights, longValues, W) == output:
+                "unboundedKnapsack (long) failed for W = " + W;
+            assert unboundedKnapsackNaive(weights, values, W) == output:
+                "unboundedKnapsackNaive failed for W = " + W;
+        }
+    }
+
+    private static class MultiTestCase {
+        private int[][] weights;
+        private int[] values;
+        private int[] capacities;
+        private int output;
+
+        private MultiTestCase(int[][] weights, int[] values, int[] capacities, int output) {
+            this.weights = weights;
+            this.values = values;
+            this.capacities = capacities;
+            this.output = output;
+        }
+
+        private void run() {
+            assert multiDimensionalKnapsack(weights, values, capacities) == output:
+                "multiDimensionalKnapsack failed for " + capacities.length + " dimensions";
+            if (capacities.length == 2) {
+                assert twoDimensionalKnapsackNaive(weights, values, capacities) == output:
+                    "twoDimensionalKnapsackNaive failed";
+            }
+        }
+    }
+}
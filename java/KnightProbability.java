@@ -16,6 +16,8 @@
  * Execution: javac KnightProbability.java && java KnightProbability 
  */
 
+import java.util.Random;
+
 public class KnightProbability {
     // Define the 8 possible moves that a knight can make in chess 
     // (http://i.imgur.com/ismF2.png)
@@ -137,6 +139,69 @@ public class KnightProbability {
         return dp[row][col];
     }
     
+    // Forward solution for huge boards with few moves. Rather than the
+    // probability of staying on the board from every square, we spread the
+    // probability of being on each square out from the starting square one
+    // move at a time and add it up at the end. After i moves the knight is
+    // at most 2i rows and columns from where it started, so each move only
+    // touches that window of the board instead of the whole thing, until the
+    // window has grown to cover the board. A knight also changes color on
+    // every move, so only every other square of the window can be reached.
+    public double frontierKnightProbability(int row, int col, int moves) {
+        if (!isValidSquare(row, col)) return 0.0;
+        
+        // The window after the last move. Two buffers of that size are
+        // swapped between moves, with two extra rows and columns of zeros on
+        // every side so that all 8 squares a knight could have come from can
+        // be read without checking whether they're on the board
+        long reach = 2L * moves;
+        int top = (int) Math.max(0, row - reach);
+        int bottom = (int) Math.min(this.height - 1, row + reach);
+        int left = (int) Math.max(0, col - reach);
+        int right = (int) Math.min(this.width - 1, col + reach);
+        int stride = right - left + 5;
+        long cells = (long) (bottom - top + 5) * stride;
+        if (cells > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("board too large");
+        double[] current = new double[(int) cells];
+        double[] next = new double[(int) cells];
+        // Square (r, c) is at origin + r * stride + c
+        int origin = (2 - top) * stride + 2 - left;
+        
+        int[] offsets = new int[validMoves.length];
+        for (int m = 0; m < validMoves.length; m++) {
+            offsets[m] = validMoves[m][0] * stride + validMoves[m][1];
+        }
+        int o0 = offsets[0], o1 = offsets[1], o2 = offsets[2], o3 = offsets[3];
+        int o4 = offsets[4], o5 = offsets[5], o6 = offsets[6], o7 = offsets[7];
+        
+        current[origin + row * stride + col] = 1.0;
+        for (int i = 1; i <= moves; i++) {
+            int r0 = (int) Math.max(top, row - 2L * i);
+            int r1 = (int) Math.min(bottom, row + 2L * i);
+            int c0 = (int) Math.max(left, col - 2L * i);
+            int c1 = (int) Math.min(right, col + 2L * i);
+            int color = (row + col + i) & 1;
+            // Every square of the right color in the window. The buffer
+            // still holds the move before last, which is the same color and
+            // a smaller window, so everything in it is overwritten
+            for (int r = r0; r <= r1; r++) {
+                int base = origin + r * stride;
+                for (int c = c0 + (((r + c0) ^ color) & 1); c <= c1; c += 2) {
+                    int s = base + c;
+                    next[s] = (current[s + o0] + current[s + o1] + current[s + o2] + current[s + o3]
+                        + current[s + o4] + current[s + o5] + current[s + o6] + current[s + o7]) / validMoves.length;
+                }
+            }
+            double[] swap = current;
+            current = next;
+            next = swap;
+        }
+        
+        double prob = 0.0;
+        for (double p : current) prob += p;
+        return prob;
+    }
+    
     // Sample testcases
     public static void main(String[] args) {
         (new TestCase(1, 1, 0, 0, 1, 0.0)).run();
@@ -145,6 +210,31 @@ public class KnightProbability {
         (new TestCase(3, 3, 0, 0, 1, 0.25)).run();
         (new TestCase(3, 3, 0, 0, 2, 0.0625)).run();
         (new TestCase(3, 3, 0, 0, 5, 0.0009765625)).run();
+        
+        // Against the space-optimized solution on random boards
+        Random r = new Random(0);
+        for (int t = 0; t < 200; t++) {
+            KnightProbability kp = new KnightProbability(1 + r.nextInt(12), 1 + r.nextInt(12));
+            int row = r.nextInt(kp.height);
+            int col = r.nextInt(kp.width);
+            int moves = r.nextInt(10);
+            assert Math.abs(kp.frontierKnightProbability(row, col, moves)
+                - kp.bottomUpKnightProbabilitySpaceOptimized(row, col, moves)) < 1e-12:
+                "frontierKnightProbability failed on " + kp.height + "x" + kp.width
+                + " board starting at " + row + "," + col;
+        }
+        
+        // On a 10000x10000 board a knight that starts near a corner can't
+        // tell it apart from a 50x50 board in 10 moves, and one that starts
+        // in the middle never falls off
+        KnightProbability huge = new KnightProbability(10000, 10000);
+        KnightProbability small = new KnightProbability(50, 50);
+        assert Math.abs(huge.frontierKnightProbability(3, 1, 10)
+            - small.bottomUpKnightProbabilitySpaceOptimized(3, 1, 10)) < 1e-12:
+            "frontierKnightProbability failed near the corner of a huge board";
+        assert Math.abs(huge.frontierKnightProbability(5000, 5000, 100) - 1.0) < 1e-12:
+            "frontierKnightProbability failed in the middle of a huge board";
+        assert huge.frontierKnightProbability(-1, 0, 3) == 0.0 : "frontierKnightProbability failed off the board";
         System.out.println("Passed all test cases");
     }
     
@@ -180,6 +270,9 @@ public class KnightProbability {
             assert kp.bottomUpKnightProbabilitySpaceOptimized(row, col, moves) == output:
                 "bottomUpKnightProbabilitySpaceOptimized failed on " + height + "x" + width 
                 + " board starting at " + row + "," + col;
+            assert kp.frontierKnightProbability(row, col, moves) == output:
+                "frontierKnightProbability failed on " + height + "x" + width 
+                + " board starting at " + row + "," + col;
         }
     }
 }
\ No newline at end of file
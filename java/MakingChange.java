@@ -70,6 +70,34 @@ public class MakingChange {
         return dp[n];
     }
     
+    // Top down dynamic solution driven by IterativeMemo, so large n can't
+    // overflow the stack
+    public int topDownChangeIterative(int n) {
+        IterativeMemo.Recurrence change = new IterativeMemo.Recurrence() {
+            // Subproblem k uses the k-th coin that isn't bigger than the
+            // amount, in the same order as topDownChange tries them
+            public long subproblem(long state, int k) {
+                for (int coin : coins) {
+                    if (state - coin >= 0 && k-- == 0) return state - coin;
+                }
+                return IterativeMemo.NONE;
+            }
+            
+            public long start(long state) {
+                return Integer.MAX_VALUE;
+            }
+            
+            public long combine(long state, int k, long acc, long value) {
+                return Math.min(acc, value);
+            }
+            
+            public long finish(long state, long acc) {
+                return state == 0 ? 0 : (int) (acc + 1);
+            }
+        };
+        return (int) new IterativeMemo(change, n + 1).solve(n);
+    }
+    
     // Bottom up dynamic solution
     public int bottomUpChange(int n) {
         int[] dp = new int[n + 1];
@@ -101,6 +129,10 @@ public class MakingChange {
         (new TestCase(randomCoins, 8, 3)).run();
         (new TestCase(randomCoins, 11, 2)).run();
         (new TestCase(randomCoins, 12, 2)).run();
+        // topDownChange overflows the stack on this one
+        MakingChange american = new MakingChange(americanCoins);
+        assert american.topDownChangeIterative(10_000_000) == american.bottomUpChange(10_000_000):
+            "topDownChangeIterative failed for input = 10000000";
         System.out.println("Passed all test cases");
     }
     
@@ -122,6 +154,8 @@ public class MakingChange {
                 "bruteForceChange failed for input = " + input;
             assert mc.topDownChange(input) == output:
                 "topDownChange failed for input = " + input;
+            assert mc.topDownChangeIterative(input) == output:
+                "topDownChangeIterative failed for input = " + input;
             assert mc.bottomUpChange(input) == output:
                 "bottomUpChange failed for input = " + input;
         }
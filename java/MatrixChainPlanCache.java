@@ -0,0 +1,433 @@
+/*
+ * Title: Matrix Chain Plan Cache
+ * Date: 10/18/2026
+ *
+ * Cache the plans from ParallelMatrixChain for a service that is asked to
+ * group the same chains of matrices over and over, eg. the same model layers
+ * for every request.
+ *
+ * eg.
+ * MatrixChainPlanCache cache = new MatrixChainPlanCache(100, Policy.LRU);
+ * cache.plan(new int[]{40, 20, 30, 10, 30}).cost() = 26000 (a miss)
+ * cache.plan(new int[]{40, 20, 30, 10, 30}).cost() = 26000 (a hit)
+ * cache.plan(new int[]{40, 20, 30, 10, 30, 5}).cost() = 10000 (a miss that
+ *     reuses every sub-chain of the first 4 matrices)
+ *
+ * A plan only depends on the dimensions of the chain, so the dimensions are
+ * the key. Rather than wrap every int[] in an object with equals and
+ * hashCode, the dimensions are hashed into one long and the cache is a
+ * MemoTable from that hash to an entry id. The entry keeps its dimensions so
+ * that a lookup checks it really found the same chain.
+ *
+ * The cache holds at most maxSize plans. When it is full the new plan
+ * replaces either the least recently used one (LRU) or the least frequently
+ * used one, ties going to the least recently used (LFU). Entries sit in a
+ * binary heap ordered by the policy, so finding the victim is O(1) and a hit
+ * or insertion is O(log maxSize). Hits, misses and evictions are counted.
+ *
+ * Cell (i, j) of a plan only depends on dims[i..j + 1]. So when a new chain
+ * starts with the same dimensions as a cached one, every sub-chain inside
+ * the shared part can be copied from the cached plan and only the rest is
+ * solved. The hash is built one dimension at a time, so hashing a chain
+ * gives the hash of every prefix for free, and every cached chain is also
+ * listed under the hash of each of its prefixes. A miss looks up its own
+ * prefixes from longest to shortest and seeds ParallelMatrixChain with the
+ * first match. A prefix is listed under the newest chain that has it, and
+ * when that chain is evicted it's handed to another cached chain that still
+ * has it, so a family of chains keeps sharing as long as any of it is cached.
+ *
+ * The cache is safe to share between threads. The bookkeeping is done under
+ * one lock, but plans are solved outside it so misses on different chains
+ * don't wait for each other. Two threads that miss on the same chain at the
+ * same time both solve it and the second one gets the first one's plan.
+ *
+ * Execution: javac MatrixChainPlanCache.java && java MatrixChainPlanCache
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MatrixChainPlanCache {
+    public enum Policy { LRU, LFU }
+
+    // Shorter shared prefixes don't have any multiplications worth copying
+    private static final int MIN_PREFIX = 3;
+
+    private ParallelMatrixChain solver;
+    private Policy policy;
+    private int maxSize;
+
+    // Entry id -> its chain, plan, number of uses and time of last use. Ids
+    // are 0..size - 1, and an evicted entry's id goes to the new one
+    private int[][] chains;
+    private ParallelMatrixChain.Plan[] plans;
+    private long[] uses;
+    private long[] lastUse;
+    // Heap of entry ids with the next victim first, and where each id is in it
+    private int[] heap;
+    private int[] position;
+    private int size;
+
+    private MemoTable byChain = new MemoTable();
+    private MemoTable byPrefix = new MemoTable();
+
+    private long clock;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long prefixReuses;
+    private long reusedCells;
+
+    // Solve misses with a default ParallelMatrixChain
+    public MatrixChainPlanCache(int maxSize, Policy policy) {
+        this(maxSize, policy, new ParallelMatrixChain());
+    }
+
+    public MatrixChainPlanCache(int maxSize, Policy policy, ParallelMatrixChain solver) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive");
+        this.maxSize = maxSize;
+        this.policy = policy;
+        this.solver = solver;
+        int capacity = Math.min(maxSize, 16);
+        chains = new int[capacity][];
+        plans = new ParallelMatrixChain.Plan[capacity];
+        uses = new long[capacity];
+        lastUse = new long[capacity];
+        heap = new int[capacity];
+        position = new int[capacity];
+    }
+
+    // The plan for the chain where matrix i is dims[i] x dims[i + 1]
+    public ParallelMatrixChain.Plan plan(int[] dims) {
+        long[] hashes = prefixHashes(dims);
+        long key = hashes[dims.length];
+        ParallelMatrixChain.Plan prefix = null;
+        int reused = 0;
+        synchronized (this) {
+            int id = (int) byChain.get(key, -1);
+            if (id >= 0 && Arrays.equals(chains[id], dims)) {
+                hits++;
+                touch(id);
+                return plans[id];
+            }
+            misses++;
+            int from = longestPrefix(dims, hashes);
+            if (from >= 0) {
+                prefix = plans[from];
+                reused = ParallelMatrixChain.sharedColumns(dims, chains[from]);
+            }
+        }
+
+        ParallelMatrixChain.Plan plan = solver.solve(dims, prefix);
+        synchronized (this) {
+            if (prefix != null) {
+                prefixReuses++;
+                reusedCells += ParallelMatrixChain.column(reused);
+            }
+            return insert(dims.clone(), hashes, plan);
+        }
+    }
+
+    // Same as above for the Matrix class
+    public ParallelMatrixChain.Plan plan(MatrixChainMultiplication.Matrix[] arr) {
+        return plan(ParallelMatrixChain.dims(arr));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // Number of misses that were seeded from a cached plan
+    public synchronized long prefixReuses() {
+        return prefixReuses;
+    }
+
+    // Number of sub-chain cells copied rather than solved
+    public synchronized long reusedCells() {
+        return reusedCells;
+    }
+
+    // hashes[p] is the hash of dims[0..p). Each one extends the one before
+    static long[] prefixHashes(int[] dims) {
+        long[] hashes = new long[dims.length + 1];
+        long h = 0x9E3779B97F4A7C15L;
+        hashes[0] = h;
+        for (int i = 0; i < dims.length; i++) {
+            h = (h ^ dims[i]) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+            hashes[i + 1] = h;
+        }
+        return hashes;
+    }
+
+    // The cached entry sharing the longest prefix with dims, or -1
+    private int longestPrefix(int[] dims, long[] hashes) {
+        for (int p = dims.length; p >= MIN_PREFIX; p--) {
+            int id = (int) byPrefix.get(hashes[p], -1);
+            if (id >= 0 && startsWith(chains[id], dims, p)) return id;
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(int[] chain, int[] dims, int p) {
+        if (chain.length < p) return false;
+        for (int i = 0; i < p; i++) {
+            if (chain[i] != dims[i]) return false;
+        }
+        return true;
+    }
+
+    // Add a new plan, evicting one if the cache is full. Returns the plan
+    // callers should use
+    private ParallelMatrixChain.Plan insert(int[] dims, long[] hashes, ParallelMatrixChain.Plan plan) {
+        int id = (int) byChain.get(hashes[dims.length], -1);
+        if (id >= 0) {
+            // Another thread solved the same chain first. A different chain
+            // with the same hash keeps its place and this one isn't cached
+            return Arrays.equals(chains[id], dims) ? plans[id] : plan;
+        }
+
+        if (size == maxSize) {
+            id = heap[0];
+            evict(id);
+        } else {
+            id = size;
+            if (id == chains.length) grow();
+        }
+        chains[id] = dims;
+        plans[id] = plan;
+        uses[id] = 1;
+        lastUse[id] = ++clock;
+        heap[size] = id;
+        position[id] = size;
+        size++;
+        siftUp(position[id]);
+
+        byChain.put(hashes[dims.length], id);
+        for (int p = MIN_PREFIX; p <= dims.length; p++) byPrefix.put(hashes[p], id);
+        return plan;
+    }
+
+    // Remove the entry at the top of the heap
+    private void evict(int id) {
+        int[] dims = chains[id];
+        long[] hashes = prefixHashes(dims);
+        byChain.remove(hashes[dims.length]);
+        boolean[] orphaned = new boolean[dims.length + 1];
+        boolean any = false;
+        for (int p = MIN_PREFIX; p <= dims.length; p++) {
+            if (byPrefix.get(hashes[p], -1) == id) {
+                byPrefix.remove(hashes[p]);
+                orphaned[p] = true;
+                any = true;
+            }
+        }
+        // Hand every prefix that was listed under this chain to another
+        // chain that shares it. A chain that shares p dimensions has every
+        // shorter prefix too
+        for (int e = 0; any && e < size; e++) {
+            int other = heap[e];
+            if (other == id) continue;
+            int[] chain = chains[other];
+            int shared = 0;
+            while (shared < chain.length && shared < dims.length && chain[shared] == dims[shared]) shared++;
+            for (int p = MIN_PREFIX; p <= shared; p++) {
+                if (orphaned[p]) {
+                    byPrefix.put(hashes[p], other);
+                    orphaned[p] = false;
+                }
+            }
+        }
+        chains[id] = null;
+        plans[id] = null;
+        evictions++;
+
+        size--;
+        heap[0] = heap[size];
+        position[heap[0]] = 0;
+        siftDown(0);
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(maxSize, 2L * chains.length);
+        chains = Arrays.copyOf(chains, capacity);
+        plans = Arrays.copyOf(plans, capacity);
+        uses = Arrays.copyOf(uses, capacity);
+        lastUse = Arrays.copyOf(lastUse, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        position = Arrays.copyOf(position, capacity);
+    }
+
+    // Record a hit. Uses and last use only go up, so the entry can only move
+    // down the heap
+    private void touch(int id) {
+        uses[id]++;
+        lastUse[id] = ++clock;
+        siftDown(position[id]);
+    }
+
+    // Whether entry a should be evicted before entry b
+    private boolean before(int a, int b) {
+        if (policy == Policy.LFU && uses[a] != uses[b]) return uses[a] < uses[b];
+        return lastUse[a] < lastUse[b];
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!before(id, heap[parent])) break;
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], id)) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) throws InterruptedException {
+        ParallelMatrixChain solver = new ParallelMatrixChain();
+
+        // The example
+        MatrixChainPlanCache cache = new MatrixChainPlanCache(100, Policy.LRU, solver);
+        ParallelMatrixChain.Plan first = cache.plan(new int[]{40, 20, 30, 10, 30});
+        assert first.cost() == 26000 && cache.misses() == 1 && cache.hits() == 0 : "plan failed for the example";
+        assert cache.plan(new int[]{40, 20, 30, 10, 30}) == first && cache.hits() == 1 : "plan failed to hit";
+        ParallelMatrixChain.Plan longer = cache.plan(new int[]{40, 20, 30, 10, 30, 5});
+        assert longer.cost() == 10000 && cache.prefixReuses() == 1 && cache.reusedCells() == 10:
+            "plan failed to reuse a prefix";
+        assert cache.size() == 2 && cache.evictions() == 0 : "size failed";
+
+        (new TestCase(new int[][]{{1, 2, 3}, {4, 5, 6}, {1, 2, 3}, {7, 8, 9}, {4, 5, 6}}, 2, Policy.LRU,
+                      new boolean[]{false, false, true, false, false})).run(solver);
+        (new TestCase(new int[][]{{1, 2, 3}, {1, 2, 3}, {4, 5, 6}, {7, 8, 9}, {1, 2, 3}, {4, 5, 6}}, 2, Policy.LFU,
+                      new boolean[]{false, true, false, false, true, false})).run(solver);
+        (new TestCase(new int[][]{{1, 2, 3}, {4, 5, 6}, {1, 2, 3}}, 1, Policy.LFU,
+                      new boolean[]{false, false, false})).run(solver);
+
+        // Evicting the newest chain with a prefix hands the prefix back to
+        // an older chain that still has it
+        MatrixChainPlanCache family = new MatrixChainPlanCache(2, Policy.LRU, solver);
+        family.plan(new int[]{5, 6, 7, 8, 9, 1});
+        family.plan(new int[]{5, 6, 7, 8, 9, 2});
+        family.plan(new int[]{5, 6, 7, 8, 9, 1});
+        family.plan(new int[]{3, 4});
+        assert family.evictions() == 1 && family.prefixReuses() == 1 : "eviction failed for a family of chains";
+        family.plan(new int[]{5, 6, 7, 8, 9, 3});
+        assert family.prefixReuses() == 2 && family.reusedCells() == 20:
+            "prefix reuse failed after the newest chain with the prefix was evicted";
+
+        // Random chains sharing prefixes give the same plans as solving from
+        // scratch, for both policies and with plenty of evictions
+        Random r = new Random(0);
+        int[][] pool = new int[40][];
+        for (int c = 0; c < pool.length; c++) {
+            int length = 2 + r.nextInt(80);
+            pool[c] = c > 0 && r.nextBoolean() ? Arrays.copyOf(pool[r.nextInt(c)], length) : new int[length];
+            for (int i = r.nextInt(length + 1); i < length; i++) pool[c][i] = 1 + r.nextInt(100);
+            for (int i = 0; i < length; i++) {
+                if (pool[c][i] == 0) pool[c][i] = 1 + r.nextInt(100);
+            }
+        }
+        ParallelMatrixChain.Plan[] expected = new ParallelMatrixChain.Plan[pool.length];
+        for (int c = 0; c < pool.length; c++) expected[c] = solver.solve(pool[c]);
+        for (Policy policy : Policy.values()) {
+            MatrixChainPlanCache random = new MatrixChainPlanCache(10, policy, solver);
+            for (int t = 0; t < 2000; t++) {
+                // Skewed so that some chains are used much more than others
+                int c = Math.min(r.nextInt(pool.length), r.nextInt(pool.length));
+                ParallelMatrixChain.Plan plan = random.plan(pool[c]);
+                assert plan.cost() == expected[c].cost() && plan.toString().equals(expected[c].toString()):
+                    "plan failed for " + Arrays.toString(pool[c]) + " with " + policy;
+                assert random.size() <= 10 : "size exceeded maxSize with " + policy;
+            }
+            assert random.hits() + random.misses() == 2000 && random.hits() > 0 : "hits and misses failed";
+            assert random.evictions() == random.misses() - random.size() : "evictions failed with " + policy;
+            assert random.prefixReuses() > 0 && random.reusedCells() > 0 : "prefix reuse failed with " + policy;
+        }
+
+        // Shared between threads
+        final MatrixChainPlanCache shared = new MatrixChainPlanCache(8, Policy.LFU, solver);
+        final AtomicBoolean failed = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final Random tr = new Random(t);
+            threads[t] = new Thread(() -> {
+                for (int q = 0; q < 1000; q++) {
+                    int c = tr.nextInt(pool.length);
+                    if (shared.plan(pool[c]).cost() != expected[c].cost()) failed.set(true);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assert !failed.get() : "plan failed when shared between threads";
+        assert shared.hits() + shared.misses() == 4000 && shared.size() <= 8 : "metrics failed between threads";
+
+        // The prefix hashes extend each other and tell different chains apart
+        long[] a = prefixHashes(new int[]{1, 2, 3});
+        long[] b = prefixHashes(new int[]{1, 2, 4});
+        assert a[2] == b[2] && a[3] != b[3] : "prefixHashes failed";
+        try {
+            new MatrixChainPlanCache(0, Policy.LRU);
+            assert false : "failed to reject maxSize = 0";
+        } catch (IllegalArgumentException e) {
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases. Requests chains in order
+    // and checks which ones hit
+    private static class TestCase {
+        private int[][] chains;
+        private int maxSize;
+        private Policy policy;
+        private boolean[] hits;
+
+        private TestCase(int[][] chains, int maxSize, Policy policy, boolean[] hits) {
+            this.chains = chains;
+            this.maxSize = maxSize;
+            this.policy = policy;
+            this.hits = hits;
+        }
+
+        private void run(ParallelMatrixChain solver) {
+            MatrixChainPlanCache cache = new MatrixChainPlanCache(maxSize, policy, solver);
+            for (int i = 0; i < chains.length; i++) {
+                long before = cache.hits();
+                assert cache.plan(chains[i]).cost() == solver.solve(chains[i]).cost():
+                    "plan failed for " + Arrays.toString(chains[i]);
+                assert (cache.hits() > before) == hits[i]:
+                    "eviction failed for request " + i + " with " + policy + " and maxSize = " + maxSize;
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Title: Meet In The Middle Target Sum
+ * Date: 10/18/2026
+ *
+ * Solve the same problem as TargetSum, the number of ways to add and
+ * subtract the values in nums to get T, when the values are huge.
+ *
+ * eg.
+ * nums = {1000000000000, 2000000000000, 3000000000000, 4000000000000}
+ * T = 0
+ * count(nums, T) = 2
+ *
+ * Every dynamic programming solution in TargetSum needs a table as wide as
+ * the sum of the values, which is hopeless for values around 10^12, and
+ * brute force is 2^n. Instead we split nums into two halves and list every
+ * sum of each half on its own, 2^(n/2) sums each. A way to reach T is a sum
+ * from the left half plus a sum from the right half that add up to T. If we
+ * sort both lists, we can find all of those pairs in one pass with one
+ * pointer moving up the left list and one moving down the right list. That's
+ * O(2^(n/2)) sums rather than 2^n, so n around 50 is fine.
+ *
+ * The sums are kept in long arrays. Each half starts from the sum with every
+ * value subtracted and adding the next value doubles the list: the new half
+ * is the old one plus twice the value. The two halves are built on
+ * different threads, and a large half is split further by fixing the sign of
+ * its first value, which gives two independent blocks of the array.
+ *
+ * The lists are sorted with an LSD radix sort, one byte at a time, rather
+ * than Arrays.sort: it's linear and doesn't compare anything. Sums only use
+ * the low bits of a long, so the passes where every sum has the same byte
+ * are skipped.
+ *
+ * Memory is two arrays of 2^(n/2) longs per half, so n = 50 needs about 1GB.
+ *
+ * Execution: javac MeetInTheMiddleTargetSum.java && java MeetInTheMiddleTargetSum
+ */
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+public class MeetInTheMiddleTargetSum {
+    // Each half has at most 2^30 sums so it fits in an array
+    public static final int MAX_LENGTH = 60;
+
+    // Halves with at most 2^SEQUENTIAL_BITS sums are built on one thread
+    private static final int SEQUENTIAL_BITS = 16;
+
+    private ForkJoinPool pool;
+
+    // Use the common pool
+    public MeetInTheMiddleTargetSum() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MeetInTheMiddleTargetSum(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Number of ways to reach T
+    public long count(long[] nums, long T) {
+        if (nums.length > MAX_LENGTH) throw new IllegalArgumentException("at most " + MAX_LENGTH + " values");
+        long total = 0;
+        for (long num : nums) {
+            if (num == Long.MIN_VALUE) throw new IllegalArgumentException("values too large");
+            try {
+                total = Math.addExact(total, Math.abs(num));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("sum of values too large");
+            }
+        }
+        if (Math.abs(T) > total) return 0;
+
+        int mid = nums.length / 2;
+        Half left = new Half(nums, 0, mid);
+        Half right = new Half(nums, mid, nums.length);
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(left, right)));
+        return countPairs(left.sums, right.sums, T);
+    }
+
+    // Same as above for int values
+    public long count(int[] nums, long T) {
+        long[] values = new long[nums.length];
+        for (int i = 0; i < nums.length; i++) values[i] = nums[i];
+        return count(values, T);
+    }
+
+    // Number of pairs a + b = T with a from left and b from right, both sorted
+    private static long countPairs(long[] left, long[] right, long T) {
+        long count = 0;
+        int i = 0;
+        int j = right.length - 1;
+        while (i < left.length && j >= 0) {
+            long sum = left[i] + right[j];
+            if (sum < T) {
+                i++;
+            } else if (sum > T) {
+                j--;
+            } else {
+                // Every copy of left[i] pairs with every copy of right[j]
+                long a = left[i];
+                long b = right[j];
+                long leftRun = 0;
+                long rightRun = 0;
+                while (i < left.length && left[i] == a) {
+                    i++;
+                    leftRun++;
+                }
+                while (j >= 0 && right[j] == b) {
+                    j--;
+                    rightRun++;
+                }
+                count += leftRun * rightRun;
+            }
+        }
+        return count;
+    }
+
+    // Sort in place. buffer has the same length as sums
+    static void radixSort(long[] sums, long[] buffer) {
+        int n = sums.length;
+        // Count every byte of every key in one pass. Flipping the sign bit
+        // makes unsigned byte order match signed order
+        int[][] counts = new int[8][257];
+        for (long sum : sums) {
+            long key = sum ^ Long.MIN_VALUE;
+            for (int b = 0; b < 8; b++) counts[b][(int) (key >>> (8 * b)) & 0xFF]++;
+        }
+
+        long[] from = sums;
+        long[] to = buffer;
+        for (int b = 0; b < 8; b++) {
+            int[] count = counts[b];
+            // Every key has the same byte here, so this pass changes nothing
+            boolean trivial = false;
+            for (int d = 0; d < 256; d++) {
+                if (count[d] == n) trivial = true;
+                if (count[d] != 0) break;
+            }
+            if (trivial) continue;
+
+            // Turn counts into starting positions
+            int position = 0;
+            for (int d = 0; d < 256; d++) {
+                int c = count[d];
+                count[d] = position;
+                position += c;
+            }
+            int shift = 8 * b;
+            for (long sum : from) {
+                int d = (int) ((sum ^ Long.MIN_VALUE) >>> shift) & 0xFF;
+                to[count[d]++] = sum;
+            }
+            long[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != sums) System.arraycopy(from, 0, sums, 0, n);
+    }
+
+    // Every sum of nums[from..to), sorted
+    private static class Half extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private long[] nums;
+        private int from;
+        private int to;
+        private long[] sums;
+
+        private Half(long[] nums, int from, int to) {
+            this.nums = nums;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            sums = new long[1 << (to - from)];
+            new Enumerate(nums, from, to, sums, 0, 0).invoke();
+            radixSort(sums, new long[sums.length]);
+        }
+    }
+
+    // Fill sums[offset, offset + 2^(to - from)) with base +- nums[from] +- ...
+    // +- nums[to - 1]
+    private static class Enumerate extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private long[] nums;
+        private int from;
+        private int to;
+        private long[] sums;
+        private int offset;
+        private long base;
+
+        private Enumerate(long[] nums, int from, int to, long[] sums, int offset, long base) {
+            this.nums = nums;
+            this.from = from;
+            this.to = to;
+            this.sums = sums;
+            this.offset = offset;
+            this.base = base;
+        }
+
+        protected void compute() {
+            if (to - from > SEQUENTIAL_BITS) {
+                // Subtracting nums[from] gives the first block, adding it the
+                // second
+                int half = 1 << (to - from - 1);
+                invokeAll(new Enumerate(nums, from + 1, to, sums, offset, base - nums[from]),
+                          new Enumerate(nums, from + 1, to, sums, offset + half, base + nums[from]));
+                return;
+            }
+
+            long start = base;
+            for (int i = from; i < to; i++) start -= nums[i];
+            sums[offset] = start;
+            int size = 1;
+            for (int i = from; i < to; i++) {
+                // Switching nums[i] from subtracted to added
+                long twice = 2 * nums[i];
+                for (int j = 0; j < size; j++) sums[offset + size + j] = sums[offset + j] + twice;
+                size *= 2;
+            }
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        MeetInTheMiddleTargetSum common = new MeetInTheMiddleTargetSum();
+        ForkJoinPool single = new ForkJoinPool(1);
+        MeetInTheMiddleTargetSum sequential = new MeetInTheMiddleTargetSum(single);
+
+        (new TestCase(new long[]{}, 0, 1)).run(common);
+        (new TestCase(new long[]{}, 1, 0)).run(common);
+        (new TestCase(new long[]{1, 1, 1, 1, 1}, 3, 5)).run(common);
+        (new TestCase(new long[]{1, 2, 3, 4}, 0, 2)).run(common);
+        (new TestCase(new long[]{1000000000000L, 2000000000000L, 3000000000000L, 4000000000000L}, 0, 2)).run(common);
+        (new TestCase(new long[]{-1, 2, 0}, 1, 2)).run(common);
+        (new TestCase(new long[]{7}, -7, 1)).run(common);
+
+        // Against TargetSum for random small inputs
+        Random r = new Random(0);
+        for (int t = 0; t < 200; t++) {
+            int[] nums = new int[r.nextInt(14)];
+            for (int i = 0; i < nums.length; i++) nums[i] = r.nextInt(41) - 20;
+            int target = r.nextInt(41) - 20;
+            assert common.count(nums, target) == TargetSum.bruteForceTargetSum(nums, target):
+                "count failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+        }
+
+        // Scaling every value and the target by 10^12 doesn't change the
+        // count, so compare huge values against TargetSumCount
+        for (int t = 0; t < 5; t++) {
+            int n = 36 + r.nextInt(5);
+            int[] small = new int[n];
+            long[] huge = new long[n];
+            for (int i = 0; i < n; i++) {
+                small[i] = 1 + r.nextInt(5);
+                huge[i] = small[i] * 1_000_000_000_000L;
+            }
+            int target = r.nextInt(11) - 5;
+            BigInteger expected = TargetSumCount.exact(small, target);
+            (new TestCase(huge, target * 1_000_000_000_000L, expected.longValue())).run(common);
+            (new TestCase(huge, target * 1_000_000_000_000L, expected.longValue())).run(sequential);
+        }
+        single.shutdown();
+
+        // Radix sort handles negative numbers and every byte
+        long[] arr = new long[10000];
+        for (int i = 0; i < arr.length; i++) arr[i] = r.nextLong();
+        long[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        radixSort(arr, new long[arr.length]);
+        assert Arrays.equals(arr, sorted) : "radixSort failed";
+
+        try {
+            common.count(new long[]{Long.MAX_VALUE, 1}, 0);
+            assert false : "count failed to reject an overflowing sum";
+        } catch (IllegalArgumentException e) {
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private long[] nums;
+        private long target;
+        private long output;
+
+        private TestCase(long[] nums, long target, long output) {
+            this.nums = nums;
+            this.target = target;
+            this.output = output;
+        }
+
+        private void run(MeetInTheMiddleTargetSum solver) {
+            assert solver.count(nums, target) == output:
+                "count failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+        }
+    }
+}
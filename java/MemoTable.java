@@ -0,0 +1,315 @@
+/*
+ * Title: Memo Table
+ * Date: 10/18/2026
+ *
+ * A cache for top-down dynamic programming solutions whose state doesn't fit
+ * nicely in an array, as a replacement for Map<Integer, Map<Integer, Integer>>.
+ *
+ * eg.
+ * MemoTable memo = new MemoTable();
+ * memo.put(MemoTable.key(3, -7), 42);
+ * memo.get(MemoTable.key(3, -7), -1) = 42
+ * memo.get(MemoTable.key(3, 7), -1) = -1 (missing)
+ *
+ * The nested HashMaps box every key and value, allocate an entry object per
+ * state, hash twice per lookup, and the usual containsKey then get pattern
+ * hashes again. Here a state made of two ints (eg. (i, W) in Knapsack or
+ * (i, sum) in TargetSum) is packed into one long key, and the keys and
+ * values live in two flat arrays using open addressing with linear probing.
+ * A lookup is one hash and usually one or two array reads, and get() returns
+ * a caller supplied value on a miss so there's no separate containsKey.
+ *
+ * The table grows when it is fuller than its load factor. It can also be
+ * given a maximum size, in which case it stops growing and evicts an entry
+ * for every new one once it is full. Dropping an entry is always safe for a
+ * memo since it will just be recomputed. We pick the entry with the CLOCK
+ * algorithm, the usual cheap approximation of least recently used: every
+ * entry has a bit that is set when it is read, and a hand sweeps around the
+ * table clearing set bits and evicting the first entry whose bit is already
+ * clear.
+ *
+ * Execution: javac MemoTable.java && java MemoTable
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class MemoTable {
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    // Marks an empty slot. The key with the same value is stored separately
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private long[] values;
+    // Set when an entry is read, cleared by the clock hand. Only allocated
+    // when the table has a maximum size
+    private boolean[] referenced;
+    private int mask;
+    private int shift;
+    private int size;
+    private int threshold;
+    private float loadFactor;
+    private int maxSize;
+    private int hand;
+    private long evictions;
+
+    private boolean hasEmptyKey;
+    private long emptyKeyValue;
+
+    // Grow without limit
+    public MemoTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, Integer.MAX_VALUE);
+    }
+
+    public MemoTable(int expectedSize, float loadFactor) {
+        this(expectedSize, loadFactor, Integer.MAX_VALUE);
+    }
+
+    // Hold at most maxSize entries, evicting once full
+    public MemoTable(int expectedSize, float loadFactor, int maxSize) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("loadFactor must be between 0 and 1");
+        }
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be non-negative");
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive");
+        this.loadFactor = loadFactor;
+        this.maxSize = maxSize;
+        allocate(capacityFor(Math.min(expectedSize, maxSize)));
+    }
+
+    // Pack a two int state into a key
+    public static long key(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    // Value stored for key, or missing if there isn't one
+    public long get(long key, long missing) {
+        if (key == EMPTY) return hasEmptyKey ? emptyKeyValue : missing;
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                if (referenced != null) referenced[i] = true;
+                return values[i];
+            }
+            if (k == EMPTY) return missing;
+            i = (i + 1) & mask;
+        }
+    }
+
+    // Store value for key, replacing any old value
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            if (!hasEmptyKey) {
+                if (size == maxSize) evict();
+                size++;
+            }
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            return;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) break;
+            i = (i + 1) & mask;
+        }
+
+        if (size == maxSize) {
+            evict();
+            // Eviction can shift entries back into the probe sequence
+            i = slot(key);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+        } else if (size >= threshold && keys.length < MAX_CAPACITY) {
+            allocate(keys.length * 2);
+            i = slot(key);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    // Remove key if it's there. Returns whether it was
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!hasEmptyKey) return false;
+            hasEmptyKey = false;
+            size--;
+            return true;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                remove(i);
+                return true;
+            }
+            if (k == EMPTY) return false;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Number of entries evicted since the table was created or cleared
+    public long evictions() {
+        return evictions;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        if (referenced != null) Arrays.fill(referenced, false);
+        size = 0;
+        hand = 0;
+        evictions = 0;
+        hasEmptyKey = false;
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing. The multiply mixes every bit of the key into
+        // the top bits, so those are the ones we use
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int capacityFor(int entries) {
+        long needed = (long) Math.ceil(entries / (double) loadFactor) + 1;
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) capacity *= 2;
+        return capacity;
+    }
+
+    // Allocate a table with the given power of two capacity and move every
+    // entry into it
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        if (maxSize != Integer.MAX_VALUE) referenced = new boolean[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        // Always leave at least one empty slot so probes terminate
+        threshold = Math.min(capacity - 1, Math.max(1, (int) (capacity * loadFactor)));
+        hand = 0;
+        if (oldKeys == null) return;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == EMPTY) continue;
+            int i = slot(k);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    // Remove one entry chosen by the clock hand
+    private void evict() {
+        evictions++;
+        if (hasEmptyKey && size == 1) {
+            hasEmptyKey = false;
+            size--;
+            return;
+        }
+        while (true) {
+            int i = hand;
+            hand = (hand + 1) & mask;
+            if (keys[i] == EMPTY) continue;
+            if (referenced[i]) {
+                referenced[i] = false;
+                continue;
+            }
+            remove(i);
+            return;
+        }
+    }
+
+    // Empty slot i, then shift later entries of the same probe run back so
+    // that every entry can still be found from its home slot
+    private void remove(int i) {
+        size--;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long k = keys[j];
+            if (k == EMPTY) break;
+            int home = slot(k);
+            // Move the entry at j into the hole at i unless its home slot is
+            // cyclically in (i, j], in which case it's already reachable
+            boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (reachable) continue;
+            keys[i] = k;
+            values[i] = values[j];
+            if (referenced != null) referenced[i] = referenced[j];
+            i = j;
+        }
+        keys[i] = EMPTY;
+        if (referenced != null) referenced[i] = false;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        MemoTable memo = new MemoTable();
+        memo.put(key(3, -7), 42);
+        assert memo.get(key(3, -7), -1) == 42 : "get failed for a stored key";
+        assert memo.get(key(3, 7), -1) == -1 : "get failed for a missing key";
+        memo.put(key(3, -7), 43);
+        assert memo.get(key(3, -7), -1) == 43 && memo.size() == 1 : "put failed to replace";
+        memo.put(EMPTY, 5);
+        assert memo.get(EMPTY, -1) == 5 && memo.size() == 2 : "put failed for the sentinel key";
+        assert memo.remove(EMPTY) && !memo.remove(EMPTY) && memo.size() == 1 : "remove failed for the sentinel key";
+        assert memo.remove(key(3, -7)) && memo.size() == 0 && memo.get(key(3, -7), -1) == -1 : "remove failed";
+        memo.put(key(3, -7), 43);
+        memo.clear();
+        assert memo.size() == 0 && memo.get(key(3, -7), -1) == -1 : "clear failed";
+
+        // Random operations against a HashMap, growing and with eviction
+        Random r = new Random(0);
+        for (int maxSize : new int[]{Integer.MAX_VALUE, 100, 1}) {
+            MemoTable table = new MemoTable(0, 0.75f, maxSize);
+            Map<Long, Long> expected = new HashMap<Long, Long>();
+            for (int t = 0; t < 20000; t++) {
+                long k = key(r.nextInt(50), r.nextInt(200) - 100);
+                int op = r.nextInt(5);
+                if (op < 2) {
+                    long v = r.nextLong();
+                    table.put(k, v);
+                    expected.put(k, v);
+                } else if (op == 2) {
+                    boolean removed = table.remove(k);
+                    boolean present = expected.remove(k) != null;
+                    // An evicted entry has already gone
+                    assert removed == present || (maxSize != Integer.MAX_VALUE && present):
+                        "remove failed for key = " + k + " with maxSize = " + maxSize;
+                } else {
+                    long got = table.get(k, Long.MAX_VALUE);
+                    Long want = expected.get(k);
+                    // Without a max size nothing is ever lost. With one, an
+                    // entry may have been evicted but is never wrong
+                    assert got == (want == null ? Long.MAX_VALUE : want)
+                        || (maxSize != Integer.MAX_VALUE && got == Long.MAX_VALUE):
+                        "get failed for key = " + k + " with maxSize = " + maxSize;
+                }
+                assert table.size() <= maxSize : "size exceeded maxSize = " + maxSize;
+            }
+            if (maxSize == Integer.MAX_VALUE) {
+                assert table.size() == expected.size() && table.evictions() == 0 : "lost entries";
+            } else {
+                assert table.size() == maxSize && table.evictions() > 0 : "eviction failed";
+            }
+        }
+        System.out.println("Passed all test cases");
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Title: Parallel Edit Distance
+ * Date: 10/18/2026
+ *
+ * Compute the same edit distance as EditDistance, but for very long strings
+ * (10^5 to 10^6 characters) where the (n+1)x(m+1) table doesn't fit in memory
+ * and a single thread is too slow.
+ *
+ * We split the table into square tiles. Each tile only depends on the tile
+ * above it, the tile to its left and the single corner cell diagonally above
+ * and to the left. That means every tile on the same anti-diagonal of tiles
+ * is independent, so we sweep the anti-diagonals in order and compute all the
+ * tiles on a diagonal in parallel.
+ *
+ *      0   1   2   3        (tile columns)
+ *    +---+---+---+---+
+ *  0 | 0 | 1 | 2 | 3 |
+ *    +---+---+---+---+      tiles labelled with their anti-diagonal. All the
+ *  1 | 1 | 2 | 3 | 4 |      2s can be computed at the same time once the 1s
+ *    +---+---+---+---+      are done
+ *  2 | 2 | 3 | 4 | 5 |
+ *    +---+---+---+---+
+ *
+ * We never store the whole table. Each tile reads and overwrites its slice of
+ * a shared bottom border (one value per column of s2) and right border (one
+ * value per row of s1), so total memory is O(n + m) plus one scratch row per
+ * worker thread.
+ *
+ * Execution: javac ParallelEditDistance.java && java ParallelEditDistance
+ */
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelEditDistance {
+    public static final int DEFAULT_TILE_SIZE = 1024;
+
+    private ForkJoinPool pool;
+    private int tileSize;
+    // Scratch row reused by every tile a worker computes
+    private ThreadLocal<int[]> scratch;
+
+    // Use the common pool and default tile size
+    public ParallelEditDistance() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    public ParallelEditDistance(ForkJoinPool pool, int tileSize) {
+        if (tileSize < 1) throw new IllegalArgumentException("tileSize must be positive");
+        this.pool = pool;
+        this.tileSize = tileSize;
+        this.scratch = ThreadLocal.withInitial(() -> new int[this.tileSize + 1]);
+    }
+
+    // Compute the edit distance between s1 and s2
+    public int editDistance(CharSequence s1, CharSequence s2) {
+        int n = s1.length();
+        int m = s2.length();
+        if (n == 0) return m;
+        if (m == 0) return n;
+
+        Table table = new Table(toChars(s1), toChars(s2), tileSize, scratch);
+        int diagonals = table.tileRows + table.tileCols - 1;
+        for (int d = 0; d < diagonals; d++) {
+            // Tile (i, j) is on diagonal i + j. Find the range of tile rows
+            // that have a valid tile column on this diagonal
+            int lo = Math.max(0, d - table.tileCols + 1);
+            int hi = Math.min(d, table.tileRows - 1);
+            if (lo == hi) table.computeTile(lo, d - lo);
+            else pool.invoke(new DiagonalTask(table, d, lo, hi + 1));
+        }
+        return table.corner(table.tileRows, table.tileCols);
+    }
+
+    private static char[] toChars(CharSequence s) {
+        if (s instanceof String) return ((String) s).toCharArray();
+        char[] chars = new char[s.length()];
+        for (int i = 0; i < chars.length; i++) chars[i] = s.charAt(i);
+        return chars;
+    }
+
+    // Shared state for a single editDistance call
+    private static class Table {
+        private char[] s1;
+        private char[] s2;
+        private int tileSize;
+        private int tileRows;
+        private int tileCols;
+        // bottom[j] is dp[r][j] for the last row r computed in column j's tile
+        private int[] bottom;
+        // right[i] is dp[i][c] for the last column c computed in row i's tile
+        private int[] right;
+        // Bottom right corner of each tile, indexed by tile row + 1. The tile
+        // that reads a corner is two diagonals after the one that wrote it, so
+        // rotating through three arrays keeps readers and writers apart
+        private int[][] corners;
+        private ThreadLocal<int[]> scratch;
+
+        private Table(char[] s1, char[] s2, int tileSize, ThreadLocal<int[]> scratch) {
+            this.s1 = s1;
+            this.s2 = s2;
+            this.tileSize = tileSize;
+            this.tileRows = (s1.length + tileSize - 1) / tileSize;
+            this.tileCols = (s2.length + tileSize - 1) / tileSize;
+            this.scratch = scratch;
+            this.bottom = new int[s2.length + 1];
+            this.right = new int[s1.length + 1];
+            for (int j = 0; j < bottom.length; j++) bottom[j] = j;
+            for (int i = 0; i < right.length; i++) right[i] = i;
+            this.corners = new int[3][tileRows + 1];
+        }
+
+        // dp value at the top left of tile (ti, tj)
+        private int corner(int ti, int tj) {
+            if (ti == 0) return Math.min(tj * tileSize, s2.length);
+            if (tj == 0) return Math.min(ti * tileSize, s1.length);
+            return corners[(ti + tj) % 3][ti];
+        }
+
+        private void computeTile(int ti, int tj) {
+            int r0 = ti * tileSize;
+            int r1 = Math.min(r0 + tileSize, s1.length);
+            int c0 = tj * tileSize;
+            int c1 = Math.min(c0 + tileSize, s2.length);
+            int width = c1 - c0;
+
+            // row[k] holds dp[r][c0 + k] for the row r we're on
+            int[] row = scratch.get();
+            row[0] = corner(ti, tj);
+            System.arraycopy(bottom, c0 + 1, row, 1, width);
+
+            for (int r = r0 + 1; r <= r1; r++) {
+                char c = s1[r - 1];
+                int diag = row[0];
+                int left = right[r];
+                row[0] = left;
+                for (int k = 1; k <= width; k++) {
+                    int up = row[k];
+                    int min = diag;
+                    if (c != s2[c0 + k - 1]) min++;
+                    min = Math.min(min, up + 1);
+                    min = Math.min(min, left + 1);
+                    row[k] = min;
+                    diag = up;
+                    left = min;
+                }
+                right[r] = left;
+            }
+
+            System.arraycopy(row, 1, bottom, c0 + 1, width);
+            corners[(ti + tj + 2) % 3][ti + 1] = row[width];
+        }
+    }
+
+    // Computes tiles [lo, hi) on a single anti-diagonal, splitting the range
+    // in half until each task has one tile
+    private static class DiagonalTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private Table table;
+        private int diagonal;
+        private int lo;
+        private int hi;
+
+        private DiagonalTask(Table table, int diagonal, int lo, int hi) {
+            this.table = table;
+            this.diagonal = diagonal;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                table.computeTile(lo, diagonal - lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new DiagonalTask(table, diagonal, lo, mid),
+                      new DiagonalTask(table, diagonal, mid, hi));
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase("A", "A", 0)).run();
+        (new TestCase("A", "B", 1)).run();
+        (new TestCase("ABC", "ACB", 2)).run();
+        (new TestCase("AC", "ABCD", 2)).run();
+        (new TestCase("", "ABCD", 4)).run();
+        (new TestCase("ABCD", "", 4)).run();
+
+        // Compare against the single threaded solution on random strings that
+        // span many tiles with ragged edges
+        Random r = new Random(0);
+        for (int i = 0; i < 50; i++) {
+            String s1 = randomString(r, r.nextInt(200), 4);
+            String s2 = randomString(r, r.nextInt(200), 4);
+            (new TestCase(s1, s2, EditDistance.bottomUpEditDistance(s1, s2))).run();
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private String s1;
+        private String s2;
+        private int output;
+
+        private TestCase(String s1, String s2, int output) {
+            this.s1 = s1;
+            this.s2 = s2;
+            this.output = output;
+        }
+
+        private void run() {
+            ForkJoinPool pool = new ForkJoinPool(4);
+            for (int tileSize : new int[]{1, 3, 16, DEFAULT_TILE_SIZE}) {
+                assert new ParallelEditDistance(pool, tileSize).editDistance(s1, s2) == output:
+                    "editDistance failed with tileSize = " + tileSize
+                    + " for input = " + s1 + " " + s2;
+            }
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Title: Parallel Knapsack
+ * Date: 10/18/2026
+ *
+ * Solve the same 0-1 knapsack problem as Knapsack, but for large capacities
+ * (W in the millions) and values whose sum doesn't fit in an int.
+ *
+ * eg.
+ * weights = {1, 2, 3}, values = {6, 10, 12}
+ * maxWeight = 5
+ * maxValue(weights, values, maxWeight) = 22
+ *
+ * Items are passed as parallel primitive arrays rather than Item objects, and
+ * the dp row is a single array that is allocated once and reused for every
+ * item, so there is no allocation proportional to W after the first one.
+ *
+ * We also only ever look at capacities up to the total weight of the items
+ * seen so far. Past that point dp[j] can't grow, so while the items are light
+ * compared to W each pass only touches a short prefix of the row.
+ *
+ * On one thread we update the row in place from right to left, like
+ * Knapsack.bottomUpKnapsackSpaceOptimized. That doesn't work across threads,
+ * because a chunk on the right reads cells that a chunk on the left is
+ * writing. So for large rows we keep two rows, read one and write the other,
+ * and split each item's pass into chunks of capacities that are computed in
+ * parallel. The two rows are swapped after every item rather than
+ * reallocated.
+ *
+ * Execution: javac ParallelKnapsack.java && java ParallelKnapsack
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelKnapsack {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+    private ForkJoinPool pool;
+    private int chunkSize;
+
+    // Use the common pool and default chunk size
+    public ParallelKnapsack() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelKnapsack(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    // Maximum total value of items with total weight at most W
+    public int maxValue(int[] weights, int[] values, int W) {
+        validate(weights, values.length, W);
+        int[] dp = new int[W + 1];
+        int[] next = null;
+        int reach = 0;
+        for (int i = 0; i < weights.length; i++) {
+            int w = weights[i];
+            if (w > W) continue;
+            int last = reach;
+            reach = (int) Math.min(W, (long) reach + w);
+            // dp[j] for j past the old reach is the same as dp[last]
+            Arrays.fill(dp, last + 1, reach + 1, dp[last]);
+            if (reach + 1 < 2 * chunkSize) {
+                update(dp, w, values[i], reach);
+                continue;
+            }
+            if (next == null) next = new int[W + 1];
+            pool.invoke(new IntPass(dp, next, w, values[i], 0, reach + 1, chunkSize));
+            int[] swap = dp;
+            dp = next;
+            next = swap;
+        }
+        return dp[reach];
+    }
+
+    // Same as above with long values
+    public long maxValue(int[] weights, long[] values, int W) {
+        validate(weights, values.length, W);
+        long[] dp = new long[W + 1];
+        long[] next = null;
+        int reach = 0;
+        for (int i = 0; i < weights.length; i++) {
+            int w = weights[i];
+            if (w > W) continue;
+            int last = reach;
+            reach = (int) Math.min(W, (long) reach + w);
+            Arrays.fill(dp, last + 1, reach + 1, dp[last]);
+            if (reach + 1 < 2 * chunkSize) {
+                update(dp, w, values[i], reach);
+                continue;
+            }
+            if (next == null) next = new long[W + 1];
+            pool.invoke(new LongPass(dp, next, w, values[i], 0, reach + 1, chunkSize));
+            long[] swap = dp;
+            dp = next;
+            next = swap;
+        }
+        return dp[reach];
+    }
+
+    private static void validate(int[] weights, int values, int W) {
+        if (weights.length != values) {
+            throw new IllegalArgumentException("weights and values must have the same length");
+        }
+        if (W < 0) throw new IllegalArgumentException("W must be non-negative");
+        for (int w : weights) {
+            if (w < 0) throw new IllegalArgumentException("weights must be non-negative");
+        }
+    }
+
+    // Add one item to dp[0..limit] in place
+    static void update(int[] dp, int weight, int value, int limit) {
+        for (int j = limit; j >= weight; j--) {
+            int include = dp[j - weight] + value;
+            if (include > dp[j]) dp[j] = include;
+        }
+    }
+
+    static void update(long[] dp, int weight, long value, int limit) {
+        for (int j = limit; j >= weight; j--) {
+            long include = dp[j - weight] + value;
+            if (include > dp[j]) dp[j] = include;
+        }
+    }
+
+    // Computes next[lo..hi) from dp for one item
+    private static class IntPass extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private int[] dp;
+        private int[] next;
+        private int weight;
+        private int value;
+        private int lo;
+        private int hi;
+        private int chunkSize;
+
+        private IntPass(int[] dp, int[] next, int weight, int value, int lo, int hi, int chunkSize) {
+            this.dp = dp;
+            this.next = next;
+            this.weight = weight;
+            this.value = value;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > chunkSize) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new IntPass(dp, next, weight, value, lo, mid, chunkSize),
+                          new IntPass(dp, next, weight, value, mid, hi, chunkSize));
+                return;
+            }
+            int split = Math.min(hi, Math.max(lo, weight));
+            System.arraycopy(dp, lo, next, lo, split - lo);
+            for (int j = split; j < hi; j++) {
+                next[j] = Math.max(dp[j], dp[j - weight] + value);
+            }
+        }
+    }
+
+    private static class LongPass extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private long[] dp;
+        private long[] next;
+        private int weight;
+        private long value;
+        private int lo;
+        private int hi;
+        private int chunkSize;
+
+        private LongPass(long[] dp, long[] next, int weight, long value, int lo, int hi, int chunkSize) {
+            this.dp = dp;
+            this.next = next;
+            this.weight = weight;
+            this.value = value;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > chunkSize) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new LongPass(dp, next, weight, value, lo, mid, chunkSize),
+                          new LongPass(dp, next, weight, value, mid, hi, chunkSize));
+                return;
+            }
+            int split = Math.min(hi, Math.max(lo, weight));
+            System.arraycopy(dp, lo, next, lo, split - lo);
+            for (int j = split; j < hi; j++) {
+                next[j] = Math.max(dp[j], dp[j - weight] + value);
+            }
+        }
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase(new int[]{}, new int[]{}, 0, 0)).run();
+        (new TestCase(new int[]{1, 2, 3}, new int[]{6, 10, 12}, 5, 22)).run();
+        (new TestCase(new int[]{4, 1, 2, 3, 2, 2}, new int[]{5, 8, 4, 0, 5, 3}, 3, 13)).run();
+        (new TestCase(new int[]{4, 1, 2, 3, 2, 2}, new int[]{5, 8, 4, 0, 5, 3}, 8, 20)).run();
+        // Zero weight items and items heavier than W
+        (new TestCase(new int[]{0, 10, 3}, new int[]{7, 100, 4}, 5, 11)).run();
+
+        // Against Knapsack, with small chunks so the parallel passes are used
+        Random r = new Random(0);
+        for (int t = 0; t < 50; t++) {
+            int n = r.nextInt(40);
+            int W = r.nextInt(500);
+            int[] weights = new int[n];
+            int[] values = new int[n];
+            Knapsack.Item[] items = new Knapsack.Item[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = r.nextInt(60);
+                values[i] = r.nextInt(100);
+                items[i] = new Knapsack.Item(weights[i], values[i]);
+            }
+            (new TestCase(weights, values, W, Knapsack.bottomUpKnapsack(items, W))).run();
+        }
+
+        // Values whose sum overflows an int
+        long big = 3_000_000_000L;
+        ParallelKnapsack small = new ParallelKnapsack(ForkJoinPool.commonPool(), 4);
+        long[] values = {big, big, big, 1};
+        int[] weights = {5, 5, 5, 1};
+        assert new ParallelKnapsack().maxValue(weights, values, 15) == 3 * big:
+            "maxValue failed for long values";
+        assert small.maxValue(weights, values, 16) == 3 * big + 1:
+            "maxValue failed for long values in parallel";
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private int[] weights;
+        private int[] values;
+        private int W;
+        private int output;
+
+        private TestCase(int[] weights, int[] values, int W, int output) {
+            this.weights = weights;
+            this.values = values;
+            this.W = W;
+            this.output = output;
+        }
+
+        private void run() {
+            long[] longValues = new long[values.length];
+            for (int i = 0; i < values.length; i++) longValues[i] = values[i];
+            for (int chunkSize : new int[]{DEFAULT_CHUNK_SIZE, 3}) {
+                ParallelKnapsack knapsack = new ParallelKnapsack(ForkJoinPool.commonPool(), chunkSize);
+                assert knapsack.maxValue(weights, values, W) == output:
+                    "maxValue failed for weights = " + Arrays.toString(weights) + ", W = " + W
+                    + ", chunkSize = " + chunkSize;
+                assert knapsack.maxValue(weights, longValues, W) == output:
+                    "maxValue (long) failed for weights = " + Arrays.toString(weights) + ", W = " + W
+                    + ", chunkSize = " + chunkSize;
+            }
+        }
+    }
+}
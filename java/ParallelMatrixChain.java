@@ -0,0 +1,386 @@
+/*
+ * Title: Parallel Matrix Chain
+ * Date: 10/18/2026
+ *
+ * Solve the same problem as MatrixChainMultiplication, the cheapest way to
+ * group a chain of matrices, for chains of thousands of matrices with
+ * realistic dimensions, and return the grouping as well as its cost.
+ *
+ * eg.
+ * dims = {40, 20, 30, 10, 30}, ie. [40x20][20x30][30x10][10x30]
+ * solve(dims).cost() = 26000
+ * solve(dims).toString() = "((A0 x (A1 x A2)) x A3)"
+ *
+ * The chain is given by its dimensions: matrix i is dims[i] x dims[i + 1].
+ * Costs are longs. Multiplying three dimensions in the tens of thousands
+ * already overflows an int, so we reject chains where even the most expensive
+ * grouping could overflow a long rather than return a wrong answer.
+ *
+ * Like bottomUpMCM we fill in the table one gap (diagonal) at a time. Every
+ * cell on a diagonal only reads cells on shorter diagonals, so the cells of
+ * one diagonal are independent and we split them across a ForkJoinPool. A
+ * diagonal is only split once it has enough work to be worth it.
+ *
+ * Only cells with i <= j are used, so instead of an n x n array we store the
+ * upper triangle flattened into a long[]. Cell (i, j) tries every split k and
+ * reads (i, k) for k going up and (k + 1, j) for k going up. Those are a row
+ * and a column of the table, so we keep two copies of the triangle: one
+ * stored row by row and one stored column by column. Then both reads walk
+ * through memory in order. The best k for every cell is kept in a third
+ * triangle so that the grouping can be reconstructed.
+ *
+ * Execution: javac ParallelMatrixChain.java && java ParallelMatrixChain
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelMatrixChain {
+    // Split a diagonal into tasks of about this many multiply-adds
+    public static final int DEFAULT_GRAIN = 1 << 15;
+
+    private ForkJoinPool pool;
+    private int grain;
+
+    // Use the common pool and default grain
+    public ParallelMatrixChain() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+    }
+
+    public ParallelMatrixChain(ForkJoinPool pool, int grain) {
+        if (grain < 1) throw new IllegalArgumentException("grain must be positive");
+        this.pool = pool;
+        this.grain = grain;
+    }
+
+    // The cheapest grouping of the chain and its cost, along with the
+    // cheapest grouping of every sub-chain
+    public static class Plan {
+        private int[] dims;
+        private int n;
+        // Column by column: cell (i, j) is at j * (j + 1) / 2 + i
+        private long[] costs;
+        private int[] splits;
+
+        private Plan(int[] dims, long[] costs, int[] splits) {
+            this.dims = dims;
+            this.n = dims.length - 1;
+            this.costs = costs;
+            this.splits = splits;
+        }
+
+        // Number of matrices
+        public int size() {
+            return n;
+        }
+
+        public int[] dims() {
+            return dims.clone();
+        }
+
+        // Cost of the whole chain
+        public long cost() {
+            return cost(0, n - 1);
+        }
+
+        // Cost of multiplying matrices i through j
+        public long cost(int i, int j) {
+            return costs[index(i, j)];
+        }
+
+        // Where the cheapest grouping of i through j splits: it multiplies
+        // (i..k) by (k + 1..j). Only defined for i < j
+        public int split(int i, int j) {
+            if (i >= j) throw new IllegalArgumentException("split needs i < j");
+            return splits[index(i, j)];
+        }
+
+        private int index(int i, int j) {
+            if (i < 0 || j >= n || i > j) throw new IndexOutOfBoundsException("(" + i + ", " + j + ")");
+            return column(j) + i;
+        }
+
+        // The grouping, eg. ((A0 x A1) x A2)
+        @Override
+        public String toString() {
+            // Count the brackets opened before and closed after every matrix.
+            // Iterative since the grouping can be thousands deep
+            int[] open = new int[n];
+            int[] close = new int[n];
+            int[] stack = new int[2 * n];
+            int top = 0;
+            stack[top++] = 0;
+            stack[top++] = n - 1;
+            while (top > 0) {
+                int j = stack[--top];
+                int i = stack[--top];
+                if (i == j) continue;
+                open[i]++;
+                close[j]++;
+                int k = split(i, j);
+                stack[top++] = i;
+                stack[top++] = k;
+                stack[top++] = k + 1;
+                stack[top++] = j;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int m = 0; m < n; m++) {
+                if (m > 0) sb.append(" x ");
+                for (int b = 0; b < open[m]; b++) sb.append('(');
+                sb.append('A').append(m);
+                for (int b = 0; b < close[m]; b++) sb.append(')');
+            }
+            return sb.toString();
+        }
+    }
+
+    // Solve the chain where matrix i is dims[i] x dims[i + 1]
+    public Plan solve(int[] dims) {
+        return solve(dims, null);
+    }
+
+    // Same as above, but copy every sub-chain of an earlier plan that only
+    // uses dimensions the two chains share, rather than recompute it. The
+    // chains only have to start with the same dimensions
+    public Plan solve(int[] dims, Plan prefix) {
+        validate(dims);
+        int n = dims.length - 1;
+        if ((long) n * (n + 1) / 2 > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("chain too long");
+        int cells = column(n);
+        long[] byColumn = new long[cells];
+        long[] byRow = new long[cells];
+        int[] splits = new int[cells];
+        int[] rowStart = new int[n];
+        for (int i = 0; i < n; i++) rowStart[i] = (int) ((long) i * n - (long) i * (i - 1) / 2);
+
+        // Columns before reused are the first cells of the column by column
+        // triangle in both plans. The row by row copy is rebuilt from them
+        int reused = prefix == null ? 0 : sharedColumns(dims, prefix.dims);
+        System.arraycopy(prefix == null ? byColumn : prefix.costs, 0, byColumn, 0, column(reused));
+        System.arraycopy(prefix == null ? splits : prefix.splits, 0, splits, 0, column(reused));
+        for (int j = 0; j < reused; j++) {
+            int col = column(j);
+            for (int i = 0; i <= j; i++) byRow[rowStart[i] + j - i] = byColumn[col + i];
+        }
+
+        for (int gap = 1; gap < n; gap++) {
+            int from = Math.max(0, reused - gap);
+            int count = n - gap;
+            if (from >= count) continue;
+            if ((long) (count - from) * gap <= 2L * grain) {
+                fill(dims, byRow, byColumn, splits, rowStart, gap, from, count);
+            } else {
+                pool.invoke(new Diagonal(dims, byRow, byColumn, splits, rowStart, gap, from, count, grain));
+            }
+        }
+        return new Plan(dims.clone(), byColumn, splits);
+    }
+
+    // Same as above for the Matrix class
+    public Plan solve(MatrixChainMultiplication.Matrix[] arr) {
+        return solve(dims(arr));
+    }
+
+    // Number of leading columns, ie. sub-chains (i, j) for j below it, that
+    // are the same in both chains. Cell (i, j) only uses dims[i..j + 1]
+    static int sharedColumns(int[] a, int[] b) {
+        int shared = 0;
+        int length = Math.min(a.length, b.length);
+        while (shared < length && a[shared] == b[shared]) shared++;
+        return Math.max(0, shared - 1);
+    }
+
+    // Dimensions of a chain of Matrix objects
+    static int[] dims(MatrixChainMultiplication.Matrix[] arr) {
+        if (arr.length == 0) throw new IllegalArgumentException("need at least one matrix");
+        int[] dims = new int[arr.length + 1];
+        for (int i = 0; i < arr.length; i++) {
+            if (i > 0 && arr[i - 1].cols != arr[i].rows) {
+                throw new IllegalArgumentException("matrix " + i + " doesn't match the one before it");
+            }
+            dims[i] = arr[i].rows;
+        }
+        dims[arr.length] = arr[arr.length - 1].cols;
+        return dims;
+    }
+
+    // Reject chains that are empty or whose cost could overflow a long. Any
+    // grouping does n - 1 multiplications of at most max^3 operations each
+    static void validate(int[] dims) {
+        if (dims.length < 2) throw new IllegalArgumentException("need at least one matrix");
+        int n = dims.length - 1;
+        long max = 0;
+        for (int d : dims) {
+            if (d < 1) throw new IllegalArgumentException("dimensions must be positive");
+            max = Math.max(max, d);
+        }
+        try {
+            Math.multiplyExact(Math.multiplyExact(Math.multiplyExact(max, max), max), (long) Math.max(1, n - 1));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("costs could overflow a long");
+        }
+    }
+
+    // Start of column j in the column by column triangle
+    static int column(int j) {
+        return (int) ((long) j * (j + 1) / 2);
+    }
+
+    // Compute cells (i, i + gap) for i in [from, to)
+    private static void fill(int[] dims, long[] byRow, long[] byColumn, int[] splits, int[] rowStart,
+                             int gap, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int j = i + gap;
+            long outer = (long) dims[i] * dims[j + 1];
+            // (i, k) is at row + k and (k + 1, j) is at col + k + 1
+            int row = rowStart[i] - i;
+            int col = column(j);
+            long best = Long.MAX_VALUE;
+            int bestK = i;
+            for (int k = i; k < j; k++) {
+                long ops = byRow[row + k] + byColumn[col + k + 1] + outer * dims[k + 1];
+                if (ops < best) {
+                    best = ops;
+                    bestK = k;
+                }
+            }
+            byRow[rowStart[i] + gap] = best;
+            byColumn[col + i] = best;
+            splits[col + i] = bestK;
+        }
+    }
+
+    // Cells of one diagonal, split in half until each task has about grain
+    // multiply-adds
+    private static class Diagonal extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int[] dims;
+        private long[] byRow;
+        private long[] byColumn;
+        private int[] splits;
+        private int[] rowStart;
+        private int gap;
+        private int from;
+        private int to;
+        private int grain;
+
+        private Diagonal(int[] dims, long[] byRow, long[] byColumn, int[] splits, int[] rowStart,
+                         int gap, int from, int to, int grain) {
+            this.dims = dims;
+            this.byRow = byRow;
+            this.byColumn = byColumn;
+            this.splits = splits;
+            this.rowStart = rowStart;
+            this.gap = gap;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        protected void compute() {
+            if (to - from <= 1 || (long) (to - from) * gap <= grain) {
+                fill(dims, byRow, byColumn, splits, rowStart, gap, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Diagonal(dims, byRow, byColumn, splits, rowStart, gap, from, mid, grain),
+                      new Diagonal(dims, byRow, byColumn, splits, rowStart, gap, mid, to, grain));
+        }
+    }
+
+    // Cost of the grouping given by the splits, computed from scratch
+    private static long groupingCost(Plan plan, int i, int j) {
+        if (i == j) return 0;
+        int k = plan.split(i, j);
+        int[] dims = plan.dims;
+        return groupingCost(plan, i, k) + groupingCost(plan, k + 1, j)
+            + (long) dims[i] * dims[k + 1] * dims[j + 1];
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        ParallelMatrixChain common = new ParallelMatrixChain();
+        ForkJoinPool single = new ForkJoinPool(1);
+        // A tiny grain so that even small chains are split into tasks
+        ParallelMatrixChain split = new ParallelMatrixChain(single, 1);
+
+        Plan plan = common.solve(new int[]{40, 20, 30, 10, 30});
+        assert plan.cost() == 26000 : "solve failed for the example";
+        assert plan.toString().equals("((A0 x (A1 x A2)) x A3)") : "toString failed: " + plan;
+        assert plan.cost(1, 2) == 6000 && plan.split(0, 3) == 2 : "sub-chain lookup failed";
+        assert common.solve(new int[]{40, 20}).cost() == 0 : "solve failed for one matrix";
+        assert common.solve(new int[]{40, 20}).toString().equals("A0") : "toString failed for one matrix";
+
+        // Against MatrixChainMultiplication where int costs don't overflow
+        Random r = new Random(0);
+        for (int t = 0; t < 200; t++) {
+            MatrixChainMultiplication.Matrix[] arr = new MatrixChainMultiplication.Matrix[1 + r.nextInt(12)];
+            int rows = 1 + r.nextInt(30);
+            for (int i = 0; i < arr.length; i++) {
+                int cols = 1 + r.nextInt(30);
+                arr[i] = new MatrixChainMultiplication.Matrix(rows, cols);
+                rows = cols;
+            }
+            int expected = arr.length <= 8
+                ? MatrixChainMultiplication.bruteForceMCM(arr)
+                : MatrixChainMultiplication.bottomUpMCM(arr);
+            for (ParallelMatrixChain solver : new ParallelMatrixChain[]{common, split}) {
+                Plan p = solver.solve(arr);
+                assert p.cost() == expected : "solve failed on " + Arrays.toString(arr);
+                assert groupingCost(p, 0, arr.length - 1) == expected : "splits failed on " + Arrays.toString(arr);
+            }
+        }
+
+        // Past where int costs overflow
+        assert common.solve(new int[]{100000, 100000, 100000}).cost() == 1000000000000000L:
+            "solve failed for large dimensions";
+        try {
+            common.solve(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE});
+            assert false : "solve failed to reject overflowing costs";
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            common.solve(new MatrixChainMultiplication.Matrix[]{
+                new MatrixChainMultiplication.Matrix(2, 3), new MatrixChainMultiplication.Matrix(4, 5)});
+            assert false : "solve failed to reject mismatched matrices";
+        } catch (IllegalArgumentException e) {
+        }
+
+        // A long chain, split across tasks, gives the same plan
+        int[] dims = new int[1001];
+        for (int i = 0; i < dims.length; i++) dims[i] = 1 + r.nextInt(10000);
+        Plan sequential = new ParallelMatrixChain(single, Integer.MAX_VALUE).solve(dims);
+        Plan parallel = new ParallelMatrixChain(common.pool, 1 << 10).solve(dims);
+        assert sequential.cost() == parallel.cost() && sequential.toString().equals(parallel.toString()):
+            "parallel solve failed for a long chain";
+        assert groupingCost(parallel, 0, 999) == parallel.cost() : "splits failed for a long chain";
+
+        // Seeding from a plan that shares a prefix, is a prefix, extends the
+        // chain or has nothing in common gives the same plan as from scratch
+        for (int t = 0; t < 100; t++) {
+            int[] a = new int[2 + r.nextInt(60)];
+            for (int i = 0; i < a.length; i++) a[i] = 1 + r.nextInt(50);
+            int[] b = Arrays.copyOf(a, 2 + r.nextInt(60));
+            for (int i = Math.min(a.length, r.nextInt(b.length + 1)); i < b.length; i++) b[i] = 1 + r.nextInt(50);
+            Plan earlier = common.solve(a);
+            for (ParallelMatrixChain solver : new ParallelMatrixChain[]{common, split}) {
+                Plan expected = solver.solve(b);
+                Plan seeded = solver.solve(b, earlier);
+                assert seeded.cost() == expected.cost() && seeded.toString().equals(expected.toString()):
+                    "seeded solve failed for " + Arrays.toString(b) + " from " + Arrays.toString(a);
+                for (int j = 0; j < b.length - 1; j++) {
+                    for (int i = 0; i <= j; i++) {
+                        assert seeded.cost(i, j) == expected.cost(i, j) : "seeded solve failed for a sub-chain";
+                    }
+                }
+            }
+        }
+        assert sharedColumns(new int[]{1, 2, 3, 4}, new int[]{1, 2, 3, 5}) == 2
+            && sharedColumns(new int[]{1, 2}, new int[]{2, 2}) == 0 : "sharedColumns failed";
+        single.shutdown();
+        System.out.println("Passed all test cases");
+    }
+}
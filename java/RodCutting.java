@@ -51,6 +51,22 @@ public class RodCutting {
         return dp[length];
     }
     
+    // Top-down dynamic solution driven by IterativeMemo, so long rods can't
+    // overflow the stack
+    public static int topDownRodCuttingIterative(int[] prices, int length) {
+        IterativeMemo.Recurrence rod = new IterativeMemo.Recurrence() {
+            // Subproblem k cuts off a piece of length k + 1
+            public long subproblem(long state, int k) {
+                return k < state ? state - k - 1 : IterativeMemo.NONE;
+            }
+            
+            public long combine(long state, int k, long acc, long value) {
+                return Math.max(acc, prices[k] + value);
+            }
+        };
+        return (int) new IterativeMemo(rod, length + 1).solve(length);
+    }
+    
     // Bottom-up dynamic solution
     public static int bottomUpRodCutting(int[] prices, int length) {
         int[] dp = new int[length + 1];
@@ -70,6 +86,11 @@ public class RodCutting {
         (new TestCase(new int[]{1, 5, 8, 9, 10, 10}, 1, 1)).run();
         (new TestCase(new int[]{1, 5, 8, 9, 10, 10}, 4, 10)).run();
         (new TestCase(new int[]{1, 5, 8, 9, 10, 10}, 5, 13)).run();
+        // topDownRodCutting overflows the stack on this one
+        int[] prices = new int[20000];
+        for (int i = 0; i < prices.length; i++) prices[i] = (i + 1) * 3 + (i % 7 == 0 ? 2 : 0);
+        assert topDownRodCuttingIterative(prices, prices.length) == bottomUpRodCutting(prices, prices.length):
+            "topDownRodCuttingIterative failed for length = " + prices.length;
         System.out.println("Passed all test cases");
     }
     
@@ -90,6 +111,8 @@ public class RodCutting {
                 "bruteForceRodCutting failed for length = " + length;
             assert topDownRodCutting(prices, length) == output:
                 "topDownRodCutting failed for length = " + length;
+            assert topDownRodCuttingIterative(prices, length) == output:
+                "topDownRodCuttingIterative failed for length = " + length;
             assert bottomUpRodCutting(prices, length) == output:
                 "bottomUpRodCutting failed for length = " + length;
         }
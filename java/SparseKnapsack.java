@@ -0,0 +1,209 @@
+/*
+ * Title: Sparse Knapsack
+ * Date: 10/18/2026
+ *
+ * Solve the same 0-1 knapsack problem as Knapsack when the max weight is far
+ * too big for a table with one cell per weight (eg. sizes in bytes, with W
+ * around 10^9).
+ *
+ * eg.
+ * weights = {400000000, 300000000, 500000000}, values = {6, 5, 9}
+ * maxWeight = 900000000
+ * maxValue(weights, values, maxWeight) = 15
+ *
+ * Most cells of the dp row are just copies of the cell to their left: dp[j]
+ * only changes at weights that some subset of the items actually adds up to.
+ * So instead of the row we keep the list of (weight, value) pairs that are
+ * worth keeping, sorted by weight. A pair is dominated, and dropped, if
+ * another pair is no heavier and worth at least as much. After dropping them
+ * the values strictly increase along the list.
+ *
+ * Adding an item means merging the list with a copy of itself shifted by the
+ * item's weight and value, dropping pairs heavier than W and dominated pairs
+ * as we go. That's a single linear merge, so time and memory depend on the
+ * number of undominated states rather than on W. In the worst case (lots of
+ * small, distinct weights) the list can still grow to W + 1 pairs, and then
+ * the dense dp in ParallelKnapsack is faster.
+ *
+ * The pairs are stored in primitive parallel arrays that are reused between
+ * items, so there is no object per state.
+ *
+ * Execution: javac SparseKnapsack.java && java SparseKnapsack
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SparseKnapsack {
+    // Current list of undominated states and the buffers for the next one
+    private int[] weights = new int[16];
+    private long[] values = new long[16];
+    private int size;
+    private int[] nextWeights = new int[16];
+    private long[] nextValues = new long[16];
+    // Largest list seen while solving, for sizing comparisons with the
+    // dense table
+    private int maxStates;
+
+    // Maximum total value of items with total weight at most W
+    public static long maxValue(int[] weights, long[] values, int W) {
+        return new SparseKnapsack().solve(weights, values, W);
+    }
+
+    public static long maxValue(int[] weights, int[] values, int W) {
+        long[] longValues = new long[values.length];
+        for (int i = 0; i < values.length; i++) longValues[i] = values[i];
+        return maxValue(weights, longValues, W);
+    }
+
+    // Same as maxValue, but keeps the solver around so its buffers are reused
+    // and maxStates() can be read afterwards
+    public long solve(int[] itemWeights, long[] itemValues, int W) {
+        if (itemWeights.length != itemValues.length) {
+            throw new IllegalArgumentException("weights and values must have the same length");
+        }
+        if (W < 0) throw new IllegalArgumentException("W must be non-negative");
+        for (int w : itemWeights) {
+            if (w < 0) throw new IllegalArgumentException("weights must be non-negative");
+        }
+
+        // Start with the empty selection
+        weights[0] = 0;
+        values[0] = 0;
+        size = 1;
+        maxStates = 1;
+        for (int i = 0; i < itemWeights.length; i++) {
+            // Items that are too heavy or worth nothing can never help
+            if (itemWeights[i] > W || itemValues[i] <= 0) continue;
+            add(itemWeights[i], itemValues[i], W);
+            maxStates = Math.max(maxStates, size);
+        }
+        // Values increase along the list, so the last pair is the best
+        return values[size - 1];
+    }
+
+    // Number of states in the largest list from the last solve
+    public int maxStates() {
+        return maxStates;
+    }
+
+    // Merge the list with itself shifted by (w, v)
+    private void add(int w, long v, int W) {
+        if (nextWeights.length < 2 * size) {
+            nextWeights = new int[2 * size];
+            nextValues = new long[2 * size];
+        }
+        int count = 0;
+        int a = 0;
+        int b = 0;
+        // Pairs that stay within W after the shift. They form a prefix since
+        // the list is sorted by weight
+        int shifted = size;
+        while (shifted > 0 && (long) weights[shifted - 1] + w > W) shifted--;
+
+        long best = -1;
+        while (a < size || b < shifted) {
+            int weight;
+            long value;
+            // Take the lighter pair, or the more valuable one on a tie
+            if (b == shifted || (a < size && (weights[a] < weights[b] + w
+                    || (weights[a] == weights[b] + w && values[a] >= values[b] + v)))) {
+                weight = weights[a];
+                value = values[a++];
+            } else {
+                weight = weights[b] + w;
+                value = values[b++] + v;
+            }
+            // Everything kept so far is no heavier, so this pair is dominated
+            // unless it's worth more than all of them
+            if (value > best) {
+                nextWeights[count] = weight;
+                nextValues[count++] = value;
+                best = value;
+            }
+        }
+
+        int[] swapWeights = weights;
+        long[] swapValues = values;
+        weights = nextWeights;
+        values = nextValues;
+        nextWeights = swapWeights;
+        nextValues = swapValues;
+        size = count;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase(new int[]{}, new long[]{}, 0, 0)).run();
+        (new TestCase(new int[]{1, 2, 3}, new long[]{6, 10, 12}, 5, 22)).run();
+        (new TestCase(new int[]{4, 1, 2, 3, 2, 2}, new long[]{5, 8, 4, 0, 5, 3}, 3, 13)).run();
+        (new TestCase(new int[]{4, 1, 2, 3, 2, 2}, new long[]{5, 8, 4, 0, 5, 3}, 8, 20)).run();
+        (new TestCase(new int[]{400000000, 300000000, 500000000}, new long[]{6, 5, 9},
+                      900000000, 15)).run();
+        (new TestCase(new int[]{0, 10, 3}, new long[]{7, 100, 4}, 5, 11)).run();
+        (new TestCase(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE}, new long[]{1L << 40, 1L << 40},
+                      Integer.MAX_VALUE, 1L << 40)).run();
+
+        // Against Knapsack on small capacities
+        Random r = new Random(0);
+        for (int t = 0; t < 50; t++) {
+            int n = r.nextInt(40);
+            int W = r.nextInt(500);
+            int[] weights = new int[n];
+            long[] values = new long[n];
+            Knapsack.Item[] items = new Knapsack.Item[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = r.nextInt(60);
+                values[i] = r.nextInt(100);
+                items[i] = new Knapsack.Item(weights[i], (int) values[i]);
+            }
+            (new TestCase(weights, values, W, Knapsack.bottomUpKnapsack(items, W))).run();
+        }
+
+        // Against brute force on huge capacities
+        for (int t = 0; t < 20; t++) {
+            int n = r.nextInt(16);
+            int W = r.nextInt(1_000_000_000);
+            int[] weights = new int[n];
+            long[] values = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = r.nextInt(300_000_000);
+                values[i] = r.nextInt(1_000_000);
+            }
+            long best = 0;
+            for (int mask = 0; mask < 1 << n; mask++) {
+                long weight = 0;
+                long value = 0;
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        weight += weights[i];
+                        value += values[i];
+                    }
+                }
+                if (weight <= W) best = Math.max(best, value);
+            }
+            (new TestCase(weights, values, W, best)).run();
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private int[] weights;
+        private long[] values;
+        private int W;
+        private long output;
+
+        private TestCase(int[] weights, long[] values, int W, long output) {
+            this.weights = weights;
+            this.values = values;
+            this.W = W;
+            this.output = output;
+        }
+
+        private void run() {
+            assert maxValue(weights, values, W) == output:
+                "maxValue failed for weights = " + Arrays.toString(weights) + ", W = " + W;
+        }
+    }
+}
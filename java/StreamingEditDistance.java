@@ -0,0 +1,163 @@
+/*
+ * Title: Streaming Edit Distance
+ * Date: 10/18/2026
+ *
+ * Keep track of the edit distance between a fixed reference string and a
+ * buffer that grows one character at a time, such as the tail of a log or
+ * text that is being typed. The buffer can also shrink from the end
+ * (backspace) by a bounded number of characters.
+ *
+ * eg.
+ * reference = "KITTEN"
+ * append("SIT")    distance = 4 (SIT vs KITTEN)
+ * append("TING")   distance = 3 (SITTING vs KITTEN)
+ * backspace()      distance = 2 (SITTIN vs KITTEN)
+ *
+ * Calling EditDistance after every change rebuilds the whole table. But
+ * appending a character to the buffer only adds one column to the dp table
+ * (with the reference down the side), and that column only depends on the
+ * previous one. We store columns in the bit-parallel form from
+ * EditDistance.BitPattern, so each append costs O(m / 64) word operations
+ * for a reference of length m and never looks at the earlier buffer again.
+ *
+ * To support backspace we keep the last maxRollback columns in a ring, so
+ * rolling back just steps back to an older column.
+ *
+ * Execution: javac StreamingEditDistance.java && java StreamingEditDistance
+ */
+
+import java.util.Random;
+
+public class StreamingEditDistance {
+    private EditDistance.BitPattern reference;
+    private int maxRollback;
+    // Ring of columns. Slot head is the current column, and the retained
+    // slots before it are the columns we can roll back to
+    private long[][] pv;
+    private long[][] mv;
+    private int[] scores;
+    private int head;
+    private int retained;
+    private long length;
+
+    public StreamingEditDistance(CharSequence reference, int maxRollback) {
+        if (maxRollback < 0) throw new IllegalArgumentException("maxRollback must be non-negative");
+        this.reference = new EditDistance.BitPattern(reference);
+        this.maxRollback = maxRollback;
+        int slots = maxRollback + 1;
+        int blocks = this.reference.blocks();
+        this.pv = new long[slots][blocks];
+        this.mv = new long[slots][blocks];
+        this.scores = new int[slots];
+        reset();
+    }
+
+    // Clear the buffer
+    public void reset() {
+        head = 0;
+        retained = 0;
+        length = 0;
+        reference.start(pv[0], mv[0]);
+        scores[0] = reference.length();
+    }
+
+    // Edit distance between the reference and the buffer
+    public int distance() {
+        return scores[head];
+    }
+
+    // Number of characters in the buffer
+    public long length() {
+        return length;
+    }
+
+    // How many characters backspace() can currently remove
+    public int rollbackAvailable() {
+        return retained;
+    }
+
+    // Append c to the buffer and return the new distance
+    public int append(char c) {
+        int next = head + 1 == scores.length ? 0 : head + 1;
+        if (next != head) {
+            System.arraycopy(pv[head], 0, pv[next], 0, pv[head].length);
+            System.arraycopy(mv[head], 0, mv[next], 0, mv[head].length);
+        }
+        scores[next] = scores[head] + reference.advance(c, pv[next], mv[next]);
+        head = next;
+        retained = Math.min(retained + 1, maxRollback);
+        length++;
+        return scores[head];
+    }
+
+    // Append every character of s and return the new distance
+    public int append(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) append(s.charAt(i));
+        return distance();
+    }
+
+    // Remove the last character of the buffer. Returns false without changing
+    // anything if it was already rolled back as far as maxRollback allows
+    public boolean backspace() {
+        if (retained == 0) return false;
+        head = head == 0 ? scores.length - 1 : head - 1;
+        retained--;
+        length--;
+        return true;
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        StreamingEditDistance kitten = new StreamingEditDistance("KITTEN", 2);
+        assert kitten.distance() == 6 : "distance failed for empty buffer";
+        kitten.append("SIT");
+        assert kitten.distance() == 4 : "append failed for SIT";
+        kitten.append("TING");
+        assert kitten.distance() == 3 : "append failed for SITTING";
+        boolean removed = kitten.backspace();
+        assert removed && kitten.distance() == 2 : "backspace failed for SITTIN";
+        removed = kitten.backspace();
+        assert removed && kitten.distance() == 3 : "backspace failed for SITTI";
+        removed = kitten.backspace();
+        assert !removed && kitten.length() == 5 : "backspace went past maxRollback";
+        kitten.append('E');
+        assert kitten.distance() == 3 : "append failed for SITTIE";
+        kitten.reset();
+        kitten.append("KITTEN");
+        assert kitten.distance() == 0 : "append failed after reset";
+
+        StreamingEditDistance empty = new StreamingEditDistance("", 0);
+        empty.append("ABC");
+        assert empty.distance() == 3 : "append failed for empty reference";
+        removed = empty.backspace();
+        assert !removed : "backspace should be disabled";
+
+        // Random typing with backspaces, compared against recomputing from
+        // scratch. Long references use more than one word per column
+        Random r = new Random(0);
+        for (int t = 0; t < 20; t++) {
+            String reference = randomString(r, r.nextInt(200), 4);
+            StreamingEditDistance session = new StreamingEditDistance(reference, 8);
+            StringBuilder typed = new StringBuilder();
+            for (int i = 0; i < 300; i++) {
+                if (r.nextInt(4) == 0 && session.rollbackAvailable() > 0) {
+                    session.backspace();
+                    typed.setLength(typed.length() - 1);
+                } else {
+                    char c = (char) ('A' + r.nextInt(4));
+                    session.append(c);
+                    typed.append(c);
+                }
+                assert session.distance() == EditDistance.bottomUpEditDistance(reference, typed.toString()):
+                    "distance failed for reference = " + reference + ", buffer = " + typed;
+            }
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
+}
@@ -15,12 +15,17 @@
  * 
  * targetSum(nums, target) = 2
  * 
+ * Values may be negative or zero. Choosing +a or -a for a negative a is the
+ * same choice as for |a|, so sums always range from -sum(|nums|) to
+ * sum(|nums|).
+ * 
  * Execution: javac TargetSum.java && java TargetSum
  */
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 public class TargetSum {
     
@@ -45,7 +50,7 @@ public class TargetSum {
     // Top-down dynamic solution. Array-based caching
     public static int topDownTargetSumArray(int[] nums, int T) {
         int numsSum = 0;
-        for (int num : nums) numsSum += num;
+        for (int num : nums) numsSum += Math.abs(num);
         int[][]dp = new int[nums.length][2 * numsSum + 1];
         
         for (int i = 0; i < dp.length; i++) {
@@ -93,6 +98,63 @@ public class TargetSum {
         return toReturn;
     }
     
+    // Top-down dynamic programming solution. MemoTable-based caching. Works
+    // like the HashMap version, but the (i, sum) state is packed into one
+    // long and nothing is boxed
+    public static int topDownTargetSumMemo(int[] nums, int T) {
+        return topDownTargetSumMemo(nums, T, new MemoTable());
+    }
+    
+    // Use the given table, eg. one with a maximum size
+    public static int topDownTargetSumMemo(int[] nums, int T, MemoTable memo) {
+        return topDownTargetSumMemo(nums, T, 0, 0, memo);
+    }
+    
+    // Overloaded recursive function
+    private static int topDownTargetSumMemo(int[] nums, int T, int i, int sum, MemoTable memo) {
+        if (i == nums.length) {
+            return sum == T ? 1 : 0;
+        }
+        
+        // A single lookup tells us whether we hit and gives the value
+        long key = MemoTable.key(i, sum);
+        long cached = memo.get(key, -1);
+        if (cached != -1) return (int) cached;
+        
+        int toReturn = topDownTargetSumMemo(nums, T, i+1, sum + nums[i], memo) + 
+            topDownTargetSumMemo(nums, T, i+1, sum - nums[i], memo);
+        memo.put(key, toReturn);
+        return toReturn;
+    }
+    
+    // Top-down dynamic programming solution driven by IterativeMemo, so long
+    // arrays can't overflow the stack. Uses the same (i, sum) keys as
+    // topDownTargetSumMemo
+    public static int topDownTargetSumIterative(int[] nums, int T) {
+        IterativeMemo.Recurrence targetSum = new IterativeMemo.Recurrence() {
+            // Subproblem 0 adds nums[i], subproblem 1 subtracts it
+            public long subproblem(long state, int k) {
+                int i = (int) (state >> 32);
+                int sum = (int) state;
+                if (i == nums.length || k == 2) return IterativeMemo.NONE;
+                return MemoTable.key(i + 1, k == 0 ? sum + nums[i] : sum - nums[i]);
+            }
+            
+            public long combine(long state, int k, long acc, long value) {
+                return (int) (acc + value);
+            }
+            
+            public long finish(long state, long acc) {
+                if ((int) (state >> 32) == nums.length) return (int) state == T ? 1 : 0;
+                return acc;
+            }
+        };
+        int numsSum = 0;
+        for (int num : nums) numsSum += Math.abs(num);
+        return (int) new IterativeMemo(targetSum, new MemoTable(), (long) nums.length * (2 * numsSum + 1))
+            .solve(MemoTable.key(0, 0));
+    }
+    
     // Bottom-up dynamic solution
     public static int bottomUpTargetSum(int[] nums, int T) {
         if (nums.length == 0) return T == 0 ? 1 : 0;
@@ -100,29 +162,143 @@ public class TargetSum {
         
         // Our cache has to range from -sum(nums) to sum(nums), so we offset
         // everything by sum
-        for (int num : nums) numsSum += num;
+        for (int num : nums) numsSum += Math.abs(num);
+        if (Math.abs(T) > numsSum) return 0;
         int[][] dp = new int[nums.length + 1][2 * numsSum + 1];
         dp[0][numsSum] = 1;
         
         // Iterate over the previous row and update the current row
         for (int i = 1; i < dp.length; i++) {
+            int num = Math.abs(nums[i-1]);
             for (int j = 0; j < dp[0].length; j++) {
-                if (j - nums[i-1] >= 0) 
-                    dp[i][j] += dp[i-1][j - nums[i-1]];
-                if (j + nums[i-1] < dp[0].length)
-                    dp[i][j] += dp[i-1][j + nums[i-1]];
+                if (j - num >= 0) 
+                    dp[i][j] += dp[i-1][j - num];
+                if (j + num < dp[0].length)
+                    dp[i][j] += dp[i-1][j + num];
             }
         }
         
         return dp[nums.length][numsSum + T];
     }
     
+    // Bottom-up dynamic solution in O(sum) memory. If P is the set of values
+    // we add, sum(P) - (total - sum(P)) = T, so we count the subsets of |nums|
+    // that add up to (total + T) / 2 instead. That needs a single row of
+    // subset sums, updated in place from right to left so each value is used
+    // at most once. Exact while the count fits in a long. Throws
+    // ArithmeticException if the zeros would push it past that; see
+    // TargetSumCount for larger counts
+    public static long bottomUpTargetSumRolling(int[] nums, int T) {
+        long target = TargetSumCount.subsetTarget(nums, T);
+        if (target < 0) return 0;
+        if (target > Integer.MAX_VALUE - 9) throw new IllegalArgumentException("sums too large");
+        int S = (int) target;
+        
+        long[] dp = new long[S + 1];
+        dp[0] = 1;
+        int zeros = 0;
+        // Largest sum reachable so far. Everything above it is still 0
+        int reach = 0;
+        for (int n : nums) {
+            long num = Math.abs((long) n);
+            if (num == 0) {
+                zeros++;
+                continue;
+            }
+            if (num > S) continue;
+            int a = (int) num;
+            reach = (int) Math.min(S, (long) reach + a);
+            for (int j = reach; j >= a; j--) dp[j] += dp[j - a];
+        }
+        
+        // Each zero can be added or subtracted, doubling the count. A shift
+        // only uses the low 6 bits of zeros, so check for overflow first
+        long count = dp[S];
+        if (count == 0) return 0;
+        if (zeros >= 63 || count > Long.MAX_VALUE >>> zeros) {
+            throw new ArithmeticException("count doesn't fit in a long, use TargetSumCount");
+        }
+        return count << zeros;
+    }
+    
+    // Whether any assignment of signs reaches T. Same reduction as
+    // bottomUpTargetSumRolling, but each sum is one bit of a long[] so adding
+    // a value is a shift and an or, 64 sums per operation
+    public static boolean canReachTargetSum(int[] nums, int T) {
+        long target = TargetSumCount.subsetTarget(nums, T);
+        if (target < 0) return false;
+        if (target > Integer.MAX_VALUE - 9) throw new IllegalArgumentException("sums too large");
+        int S = (int) target;
+        
+        // Bit j is set if some subset adds up to j
+        long[] bits = new long[(S >>> 6) + 1];
+        bits[0] = 1;
+        int last = S >>> 6;
+        long goal = 1L << (S & 63);
+        int reach = 0;
+        for (int n : nums) {
+            long num = Math.abs((long) n);
+            if (num == 0 || num > S) continue;
+            int a = (int) num;
+            reach = (int) Math.min(S, (long) reach + a);
+            
+            // bits |= bits << a, from the top word down so every word we read
+            // still holds the sums from before this value
+            int wordShift = a >>> 6;
+            int bitShift = a & 63;
+            for (int w = reach >>> 6; w >= wordShift; w--) {
+                int from = w - wordShift;
+                long shifted = bits[from] << bitShift;
+                if (bitShift != 0 && from > 0) shifted |= bits[from - 1] >>> (64 - bitShift);
+                bits[w] |= shifted;
+            }
+            if ((bits[last] & goal) != 0) return true;
+        }
+        return (bits[last] & goal) != 0;
+    }
+    
     // Sample testcases
     public static void main(String[] args) {
         (new TestCase(new int[]{}, 1, 0)).run();
         (new TestCase(new int[]{1, 1, 1, 1, 1}, 3, 5)).run();
         (new TestCase(new int[]{1, 1, 1}, 1, 3)).run();
         (new TestCase(new int[]{1, 2, 3, 4}, 0, 2)).run();
+        (new TestCase(new int[]{1, 2}, 4, 0)).run();
+        // Negative values and zeros
+        (new TestCase(new int[]{-1, 2, 0}, 1, 2)).run();
+        (new TestCase(new int[]{-3, -3}, -6, 1)).run();
+        (new TestCase(new int[]{0, 0, 0}, 0, 8)).run();
+        (new TestCase(new int[]{65, 64, 1, 130}, 0, 2)).run();
+        
+        // Against brute force for random inputs, including negatives and
+        // values bigger than a word
+        Random r = new Random(0);
+        for (int t = 0; t < 200; t++) {
+            int[] nums = new int[r.nextInt(12)];
+            for (int i = 0; i < nums.length; i++) nums[i] = r.nextInt(301) - 150;
+            int target = r.nextInt(101) - 50;
+            (new TestCase(nums, target, bruteForceTargetSum(nums, target))).run();
+        }
+        
+        // Too big for the 2D tables
+        int[] big = new int[2000];
+        for (int i = 0; i < big.length; i++) big[i] = 1000 + 2 * i;
+        assert canReachTargetSum(big, 1000) : "canReachTargetSum failed for a large input";
+        assert !canReachTargetSum(big, 1001) : "canReachTargetSum failed for an odd target";
+        assert !canReachTargetSum(new int[]{1000000, 1}, 3) : "canReachTargetSum failed for an unreachable target";
+        
+        // Zeros double the count until it no longer fits in a long
+        assert bottomUpTargetSumRolling(new int[62], 0) == 1L << 62 : "bottomUpTargetSumRolling failed for 62 zeros";
+        assert bottomUpTargetSumRolling(new int[64], 1) == 0 : "bottomUpTargetSumRolling failed for an odd target";
+        int[] twoOnes = new int[64];
+        twoOnes[0] = twoOnes[1] = 1;
+        for (int[] nums : new int[][]{new int[63], new int[64], new int[65], twoOnes}) {
+            try {
+                bottomUpTargetSumRolling(nums, 0);
+                assert false : "bottomUpTargetSumRolling failed to reject an overflowing count for " + nums.length + " values";
+            } catch (ArithmeticException e) {
+            }
+        }
         System.out.println("Passed all test cases");
     }
     
@@ -145,8 +321,18 @@ public class TargetSum {
                 "topDownTargetSumArray failed for nums = " + Arrays.toString(nums) + ", target = " + target;
             assert topDownTargetSumHashMap(nums, target) == output:
                 "topDownTargetSumHashMap failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+            assert topDownTargetSumMemo(nums, target) == output:
+                "topDownTargetSumMemo failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+            assert topDownTargetSumMemo(nums, target, new MemoTable(0, 0.5f, 2)) == output:
+                "topDownTargetSumMemo with eviction failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+            assert topDownTargetSumIterative(nums, target) == output:
+                "topDownTargetSumIterative failed for nums = " + Arrays.toString(nums) + ", target = " + target;
             assert bottomUpTargetSum(nums, target) == output:
                 "bottomUpTargetSum failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+            assert bottomUpTargetSumRolling(nums, target) == output:
+                "bottomUpTargetSumRolling failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+            assert canReachTargetSum(nums, target) == (output > 0):
+                "canReachTargetSum failed for nums = " + Arrays.toString(nums) + ", target = " + target;
         }
     }
 }
\ No newline at end of file
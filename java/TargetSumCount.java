@@ -0,0 +1,215 @@
+/*
+ * Title: Target Sum Count
+ * Date: 10/18/2026
+ *
+ * Count the same thing as TargetSum, the number of ways to add and subtract
+ * the values in nums to get T, without overflowing. TargetSum counts in an
+ * int, which is already wrong for 32 ones with T = 0.
+ *
+ * eg.
+ * nums = 100 ones, T = 0
+ * exact(nums, T) = 100891344545564193334812497256 (100 choose 50)
+ * modulo(nums, T, 1000000007) = 538992043
+ *
+ * First we make the table half as wide. If P is the set of values we add,
+ * then sum(P) - (total - sum(P)) = T, so sum(P) = (total + T) / 2. Counting
+ * sign assignments is the same as counting subsets that add up to
+ * (total + T) / 2, and there are none if that isn't a whole number between 0
+ * and total. Then we only need a table of subset sums from 0 to
+ * (total + T) / 2 instead of every sum from -total to total, and it's one row
+ * updated in place from right to left like
+ * Knapsack.bottomUpKnapsackSpaceOptimized.
+ *
+ * A negative value has the same two choices as its absolute value, so we
+ * just use that. Zeros don't change the sum, so each one doubles the count
+ * and we apply them all at the end.
+ *
+ * modulo() counts modulo a prime (or any modulus below 2^62) with plain long
+ * arithmetic. exact() needs big numbers, but BigInteger cells would mean an
+ * object per cell and new objects on every addition. Instead each cell is a
+ * fixed number of 32 bit limbs in one flat int array. There are at most 2^n
+ * subsets, so n / 32 + 1 limbs always suffice, and we only add the limbs
+ * that can be non-zero after the items so far.
+ *
+ * Execution: javac TargetSumCount.java && java TargetSumCount
+ */
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TargetSumCount {
+
+    // Sum that a subset of |nums| has to add up to, or -1 if no assignment
+    // of signs can reach T
+    public static long subsetTarget(int[] nums, long T) {
+        long total = 0;
+        for (int num : nums) total += Math.abs((long) num);
+        if (Math.abs(T) > total || ((total + T) & 1) != 0) return -1;
+        return (total + T) / 2;
+    }
+
+    // Number of ways modulo mod
+    public static long modulo(int[] nums, long T, long mod) {
+        if (mod < 1 || mod > (1L << 62)) throw new IllegalArgumentException("mod must be in [1, 2^62]");
+        long target = subsetTarget(nums, T);
+        if (target < 0) return 0;
+        int S = checkWidth(target);
+
+        long[] dp = new long[S + 1];
+        dp[0] = 1 % mod;
+        int zeros = 0;
+        int reach = 0;
+        for (int num : nums) {
+            int a = (int) Math.min(Math.abs((long) num), Integer.MAX_VALUE);
+            if (a == 0) {
+                zeros++;
+                continue;
+            }
+            if (a > S) continue;
+            reach = (int) Math.min(S, (long) reach + a);
+            for (int j = reach; j >= a; j--) {
+                long sum = dp[j] + dp[j - a];
+                dp[j] = sum >= mod ? sum - mod : sum;
+            }
+        }
+
+        // Every zero doubles the count. count < mod, so count + count would
+        // overflow exactly when it needs reducing and we subtract instead
+        long count = dp[S];
+        for (int z = 0; z < zeros && count != 0; z++) {
+            count = count >= mod - count ? count - (mod - count) : count + count;
+        }
+        return count;
+    }
+
+    // Exact number of ways
+    public static BigInteger exact(int[] nums, long T) {
+        long target = subsetTarget(nums, T);
+        if (target < 0) return BigInteger.ZERO;
+        int S = checkWidth(target);
+
+        int limbs = nums.length / 32 + 1;
+        if ((long) (S + 1) * limbs > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("table too large");
+        }
+        // Cell j is dp[j * limbs .. (j + 1) * limbs), least significant limb
+        // first
+        int[] dp = new int[(S + 1) * limbs];
+        dp[0] = 1;
+        int zeros = 0;
+        int reach = 0;
+        int items = 0;
+        for (int num : nums) {
+            int a = (int) Math.min(Math.abs((long) num), Integer.MAX_VALUE);
+            if (a == 0) {
+                zeros++;
+                continue;
+            }
+            if (a > S) continue;
+            reach = (int) Math.min(S, (long) reach + a);
+            // After this item counts are at most 2^items
+            items++;
+            int active = Math.min(limbs, items / 32 + 1);
+            for (int j = reach; j >= a; j--) {
+                int to = j * limbs;
+                int from = (j - a) * limbs;
+                long carry = 0;
+                for (int l = 0; l < active; l++) {
+                    long sum = (dp[to + l] & 0xFFFFFFFFL) + (dp[from + l] & 0xFFFFFFFFL) + carry;
+                    dp[to + l] = (int) sum;
+                    carry = sum >>> 32;
+                }
+            }
+        }
+        return toBigInteger(dp, S * limbs, limbs).shiftLeft(zeros);
+    }
+
+    private static int checkWidth(long target) {
+        if (target > Integer.MAX_VALUE - 9) throw new IllegalArgumentException("sums too large");
+        return (int) target;
+    }
+
+    private static BigInteger toBigInteger(int[] dp, int offset, int limbs) {
+        // BigInteger wants big-endian bytes with a leading sign byte
+        byte[] bytes = new byte[limbs * 4 + 1];
+        for (int l = 0; l < limbs; l++) {
+            int limb = dp[offset + l];
+            int at = bytes.length - 4 * (l + 1);
+            bytes[at] = (byte) (limb >>> 24);
+            bytes[at + 1] = (byte) (limb >>> 16);
+            bytes[at + 2] = (byte) (limb >>> 8);
+            bytes[at + 3] = (byte) limb;
+        }
+        return new BigInteger(bytes);
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        (new TestCase(new int[]{}, 1, BigInteger.ZERO)).run();
+        (new TestCase(new int[]{}, 0, BigInteger.ONE)).run();
+        (new TestCase(new int[]{1, 1, 1, 1, 1}, 3, BigInteger.valueOf(5))).run();
+        (new TestCase(new int[]{1, 1, 1}, 1, BigInteger.valueOf(3))).run();
+        (new TestCase(new int[]{1, 2, 3, 4}, 0, BigInteger.valueOf(2))).run();
+        // Negative values and zeros
+        (new TestCase(new int[]{-1, 2, 0, 0}, 1, BigInteger.valueOf(4))).run();
+        (new TestCase(new int[]{0}, 0, BigInteger.valueOf(2))).run();
+        (new TestCase(new int[]{5}, 6, BigInteger.ZERO)).run();
+        // Enough zeros to wrap around every modulus
+        int[] zeros = new int[200];
+        zeros[0] = 3;
+        zeros[1] = 4;
+        (new TestCase(zeros, 7, BigInteger.ONE.shiftLeft(198))).run();
+
+        int[] ones = new int[100];
+        Arrays.fill(ones, 1);
+        (new TestCase(ones, 0, binomial(100, 50))).run();
+        assert modulo(ones, 0, 1_000_000_007) == 538992043 : "modulo failed for 100 ones";
+
+        // Thousands of elements
+        int[] many = new int[3000];
+        Arrays.fill(many, 1);
+        (new TestCase(many, 10, binomial(3000, 1505))).run();
+
+        // Against TargetSum where it doesn't overflow
+        Random r = new Random(0);
+        for (int t = 0; t < 50; t++) {
+            int[] nums = new int[r.nextInt(16)];
+            for (int i = 0; i < nums.length; i++) nums[i] = r.nextInt(10);
+            int T = r.nextInt(21) - 10;
+            (new TestCase(nums, T, BigInteger.valueOf(TargetSum.bruteForceTargetSum(nums, T)))).run();
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static BigInteger binomial(int n, int k) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private int[] nums;
+        private long target;
+        private BigInteger output;
+
+        private TestCase(int[] nums, long target, BigInteger output) {
+            this.nums = nums;
+            this.target = target;
+            this.output = output;
+        }
+
+        private void run() {
+            assert exact(nums, target).equals(output):
+                "exact failed for nums = " + Arrays.toString(nums) + ", target = " + target;
+            for (long mod : new long[]{1, 3, 1_000_000_007L, 998_244_353L, (1L << 61) - 1, 1L << 62}) {
+                assert modulo(nums, target, mod) == output.mod(BigInteger.valueOf(mod)).longValue():
+                    "modulo failed for nums = " + Arrays.toString(nums) + ", target = " + target
+                    + ", mod = " + mod;
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Title: Weighted Edit Distance
+ * Date: 10/18/2026
+ *
+ * Given two strings and a cost model, find the cheapest way to turn the first
+ * string into the second. Unlike EditDistance, where every edit costs 1, here
+ * each substitution can have its own cost (eg. typing a key next to the right
+ * one is a cheap mistake, or an OCR engine often confuses 0 and O), each
+ * inserted or deleted character can have its own cost, and opening a gap can
+ * cost extra so that one long gap is cheaper than many short ones (an affine
+ * gap penalty).
+ *
+ * eg.
+ * costs: substitution = 2, insertion = deletion = 1, O<->0 = 1, gapOpen = 0
+ * distance("B0OK", "BOOK") = 1 (0->O)
+ * distance("BOOK", "BACK") = 4 (O->A, O->C)
+ *
+ * costs: all 1, gapOpen = 3
+ * distance("ABCDEF", "AF") = 7 (one gap of 4 deletions: 3 + 4)
+ *
+ * The cost model is compiled once into flat int arrays indexed by a small
+ * character code, so the inner loop is a couple of array lookups with no
+ * boxing or map lookups. Characters that don't appear in any custom rule all
+ * share code 0 and the default costs. Costs must be non-negative and small
+ * enough that a full alignment doesn't overflow an int; scale fractional
+ * costs up to integers.
+ *
+ * Without a gap opening cost we use the same recurrence as
+ * EditDistance.bottomUpEditDistance. With one, we use Gotoh's algorithm, which
+ * tracks three values per cell: the cheapest alignment ending in a
+ * substitution, in a deletion and in an insertion. Either way we only keep
+ * one row, so memory is O(m).
+ *
+ * Execution: javac WeightedEditDistance.java && java WeightedEditDistance
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class WeightedEditDistance {
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    // Mutable description of a cost model. Compile it by passing it to the
+    // WeightedEditDistance constructor
+    public static class Costs {
+        private int substitution;
+        private int insertion;
+        private int deletion;
+        private int gapOpen;
+        // Custom rules, stored as parallel arrays of (from, to, cost)
+        private char[] subFrom = new char[0];
+        private char[] subTo = new char[0];
+        private int[] subCost = new int[0];
+        private char[] insChar = new char[0];
+        private int[] insCost = new int[0];
+        private char[] delChar = new char[0];
+        private int[] delCost = new int[0];
+
+        public Costs(int substitution, int insertion, int deletion) {
+            if (substitution < 0 || insertion < 0 || deletion < 0) {
+                throw new IllegalArgumentException("costs must be non-negative");
+            }
+            this.substitution = substitution;
+            this.insertion = insertion;
+            this.deletion = deletion;
+        }
+
+        // Cost of replacing from with to
+        public Costs substitute(char from, char to, int cost) {
+            if (cost < 0) throw new IllegalArgumentException("costs must be non-negative");
+            int n = subCost.length;
+            subFrom = Arrays.copyOf(subFrom, n + 1);
+            subTo = Arrays.copyOf(subTo, n + 1);
+            subCost = Arrays.copyOf(subCost, n + 1);
+            subFrom[n] = from;
+            subTo[n] = to;
+            subCost[n] = cost;
+            return this;
+        }
+
+        // Cost of replacing a with b or b with a
+        public Costs substituteEither(char a, char b, int cost) {
+            return substitute(a, b, cost).substitute(b, a, cost);
+        }
+
+        // Cost of inserting c
+        public Costs insert(char c, int cost) {
+            if (cost < 0) throw new IllegalArgumentException("costs must be non-negative");
+            insChar = Arrays.copyOf(insChar, insChar.length + 1);
+            insCost = Arrays.copyOf(insCost, insCost.length + 1);
+            insChar[insChar.length - 1] = c;
+            insCost[insCost.length - 1] = cost;
+            return this;
+        }
+
+        // Cost of deleting c
+        public Costs delete(char c, int cost) {
+            if (cost < 0) throw new IllegalArgumentException("costs must be non-negative");
+            delChar = Arrays.copyOf(delChar, delChar.length + 1);
+            delCost = Arrays.copyOf(delCost, delCost.length + 1);
+            delChar[delChar.length - 1] = c;
+            delCost[delCost.length - 1] = cost;
+            return this;
+        }
+
+        // Extra cost paid once for every run of insertions or deletions
+        public Costs gapOpen(int cost) {
+            if (cost < 0) throw new IllegalArgumentException("costs must be non-negative");
+            this.gapOpen = cost;
+            return this;
+        }
+    }
+
+    private int gapOpen;
+    // codes[c] is c's row in the tables below, 0 for characters with no rules
+    private int[] codes;
+    private int alphabet;
+    // sub[a * alphabet + b] is the cost of replacing code a with code b
+    private int[] sub;
+    private int[] ins;
+    private int[] del;
+
+    public WeightedEditDistance(Costs costs) {
+        this.gapOpen = costs.gapOpen;
+
+        int maxChar = 0;
+        for (char c : costs.subFrom) maxChar = Math.max(maxChar, c);
+        for (char c : costs.subTo) maxChar = Math.max(maxChar, c);
+        for (char c : costs.insChar) maxChar = Math.max(maxChar, c);
+        for (char c : costs.delChar) maxChar = Math.max(maxChar, c);
+        this.codes = new int[maxChar + 1];
+        int next = 1;
+        for (char[] chars : new char[][]{costs.subFrom, costs.subTo, costs.insChar, costs.delChar}) {
+            for (char c : chars) {
+                if (codes[c] == 0) codes[c] = next++;
+            }
+        }
+        this.alphabet = next;
+
+        this.sub = new int[alphabet * alphabet];
+        Arrays.fill(sub, costs.substitution);
+        for (int i = 0; i < costs.subCost.length; i++) {
+            sub[codes[costs.subFrom[i]] * alphabet + codes[costs.subTo[i]]] = costs.subCost[i];
+        }
+        this.ins = new int[alphabet];
+        Arrays.fill(ins, costs.insertion);
+        for (int i = 0; i < costs.insCost.length; i++) ins[codes[costs.insChar[i]]] = costs.insCost[i];
+        this.del = new int[alphabet];
+        Arrays.fill(del, costs.deletion);
+        for (int i = 0; i < costs.delCost.length; i++) del[codes[costs.delChar[i]]] = costs.delCost[i];
+    }
+
+    // Cheapest way to turn s1 into s2
+    public int distance(String s1, String s2) {
+        // Translate both strings to codes once so the inner loop doesn't
+        // need the range check
+        int[] a = encode(s1);
+        int[] b = encode(s2);
+        if (gapOpen == 0) return linearGapDistance(s1, s2, a, b);
+        return affineGapDistance(s1, s2, a, b);
+    }
+
+    private int[] encode(String s) {
+        int[] encoded = new int[s.length()];
+        for (int i = 0; i < encoded.length; i++) {
+            char c = s.charAt(i);
+            encoded[i] = c < codes.length ? codes[c] : 0;
+        }
+        return encoded;
+    }
+
+    // Same recurrence as EditDistance.bottomUpEditDistance with one row
+    private int linearGapDistance(String s1, String s2, int[] a, int[] b) {
+        int m = b.length;
+        int[] row = new int[m + 1];
+        for (int j = 1; j <= m; j++) row[j] = row[j - 1] + ins[b[j - 1]];
+
+        for (int i = 1; i <= a.length; i++) {
+            char c = s1.charAt(i - 1);
+            int subRow = a[i - 1] * alphabet;
+            int delete = del[a[i - 1]];
+            int diag = row[0];
+            row[0] += delete;
+            for (int j = 1; j <= m; j++) {
+                int up = row[j];
+                int value = diag + (c == s2.charAt(j - 1) ? 0 : sub[subRow + b[j - 1]]);
+                value = Math.min(value, up + delete);
+                value = Math.min(value, row[j - 1] + ins[b[j - 1]]);
+                row[j] = value;
+                diag = up;
+            }
+        }
+        return row[m];
+    }
+
+    // Gotoh's algorithm. endSub[j], endDel[j] and endIns[j] hold the cheapest
+    // alignment of the current prefixes ending in a substitution (or match),
+    // a deletion from s1 and an insertion from s2
+    private int affineGapDistance(String s1, String s2, int[] a, int[] b) {
+        int m = b.length;
+        int[] endSub = new int[m + 1];
+        int[] endDel = new int[m + 1];
+        int[] endIns = new int[m + 1];
+        endDel[0] = INFINITY;
+        endIns[0] = INFINITY;
+        int gap = gapOpen;
+        for (int j = 1; j <= m; j++) {
+            endSub[j] = INFINITY;
+            endDel[j] = INFINITY;
+            gap += ins[b[j - 1]];
+            endIns[j] = gap;
+        }
+
+        int deleted = gapOpen;
+        for (int i = 1; i <= a.length; i++) {
+            char c = s1.charAt(i - 1);
+            int subRow = a[i - 1] * alphabet;
+            int delete = del[a[i - 1]];
+            // Best alignment of the previous row at column j - 1
+            int diag = Math.min(endSub[0], Math.min(endDel[0], endIns[0]));
+            deleted += delete;
+            endSub[0] = INFINITY;
+            endDel[0] = deleted;
+            endIns[0] = INFINITY;
+            for (int j = 1; j <= m; j++) {
+                int upSub = endSub[j];
+                int upDel = endDel[j];
+                int upIns = endIns[j];
+
+                endSub[j] = diag + (c == s2.charAt(j - 1) ? 0 : sub[subRow + b[j - 1]]);
+                endDel[j] = Math.min(upDel, Math.min(upSub, upIns) + gapOpen) + delete;
+                endIns[j] = Math.min(endIns[j - 1], Math.min(endSub[j - 1], endDel[j - 1]) + gapOpen)
+                    + ins[b[j - 1]];
+                diag = Math.min(upSub, Math.min(upDel, upIns));
+            }
+        }
+        return Math.min(endSub[m], Math.min(endDel[m], endIns[m]));
+    }
+
+    // Sample testcases
+    public static void main(String[] args) {
+        Costs ocr = new Costs(2, 1, 1).substituteEither('O', '0', 1);
+        (new TestCase(ocr, "B0OK", "BOOK", 1)).run();
+        (new TestCase(ocr, "BOOK", "BACK", 4)).run();
+        (new TestCase(ocr, "", "BOOK", 4)).run();
+        (new TestCase(ocr, "BOOK", "", 4)).run();
+
+        Costs affine = new Costs(1, 1, 1).gapOpen(3);
+        (new TestCase(affine, "ABCDEF", "AF", 7)).run();
+        (new TestCase(affine, "AF", "ABCDEF", 7)).run();
+        (new TestCase(affine, "ABCDEF", "ABCDEF", 0)).run();
+        // Two substitutions beat opening a gap of one deletion and one insertion
+        (new TestCase(affine, "ABCD", "ABDC", 2)).run();
+        (new TestCase(affine, "", "", 0)).run();
+        (new TestCase(affine, "", "AB", 5)).run();
+
+        // Per character costs: deleting spaces is free
+        Costs spaces = new Costs(1, 1, 1).delete(' ', 0);
+        (new TestCase(spaces, "A B C", "ABC", 0)).run();
+        (new TestCase(spaces, "ABC", "A B C", 2)).run();
+
+        // With unit costs and no gap penalty we should agree with EditDistance
+        Costs unit = new Costs(1, 1, 1);
+        Random r = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            String s1 = randomString(r, r.nextInt(50), 4);
+            String s2 = randomString(r, r.nextInt(50), 4);
+            (new TestCase(unit, s1, s2, EditDistance.bottomUpEditDistance(s1, s2))).run();
+        }
+        System.out.println("Passed all test cases");
+    }
+
+    private static String randomString(Random r, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) sb.append((char) ('A' + r.nextInt(alphabet)));
+        return sb.toString();
+    }
+
+    // Class for defining and running test cases
+    private static class TestCase {
+        private Costs costs;
+        private String s1;
+        private String s2;
+        private int output;
+
+        private TestCase(Costs costs, String s1, String s2, int output) {
+            this.costs = costs;
+            this.s1 = s1;
+            this.s2 = s2;
+            this.output = output;
+        }
+
+        private void run() {
+            assert new WeightedEditDistance(costs).distance(s1, s2) == output:
+                "distance failed for input = " + s1 + " " + s2;
+        }
+    }
+}